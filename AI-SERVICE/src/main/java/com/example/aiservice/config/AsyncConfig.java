@@ -0,0 +1,78 @@
+package com.example.aiservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread pools of the AI service
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Runs the legs of hybrid retrieval; a full pool rejects the leg, which is then skipped
+     * like a late one (running it in the caller thread would ignore the latency budget)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor retrievalExecutor(
+            @Value("${ai.retrieval.executor.core-pool-size}") int corePoolSize,
+            @Value("${ai.retrieval.executor.max-pool-size}") int maxPoolSize,
+            @Value("${ai.retrieval.executor.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("retrieval-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Runs ingestion jobs; a full pool rejects the job, which then waits in the database or is refused
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ingestionExecutor(
+            @Value("${ai.ingestion.jobs.concurrency}") int concurrency,
+            @Value("${ai.ingestion.jobs.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ingestion-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    /**
+     * Extracts the text of PDF page ranges; CPU bound, one thread per core
+     * A full pool extracts in the caller (ingestion) thread
+     */
+    @Bean
+    public ThreadPoolTaskExecutor extractionExecutor(@Value("${ai.ingestion.pdf.queue-capacity}") int queueCapacity) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("extraction-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    /**
+     * Embeds and upserts ingestion batches; sized to the number of batches allowed in flight
+     */
+    @Bean
+    public ThreadPoolTaskExecutor embeddingBatchExecutor(@Value("${ai.embedding.batch.max-in-flight}") int maxInFlight) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxInFlight);
+        executor.setMaxPoolSize(maxInFlight);
+        executor.setQueueCapacity(maxInFlight);
+        executor.setThreadNamePrefix("embedding-batch-");
+        return executor;
+    }
+}
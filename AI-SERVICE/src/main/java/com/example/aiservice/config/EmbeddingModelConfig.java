@@ -0,0 +1,45 @@
+package com.example.aiservice.config;
+
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.embedding.onnx.allminilml6v2.AllMiniLmL6V2EmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Embedding model selection (ai.embedding.provider)
+ * - openai (default): text-embedding-3-small, auto-configured by the OpenAI starter
+ * - local: all-MiniLM-L6-v2 on ONNX runtime, in process, one inference thread per core
+ */
+@Configuration
+@ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "local")
+@Slf4j
+public class EmbeddingModelConfig {
+
+    public static final String LOCAL_MODEL_NAME = "all-minilm-l6-v2";
+
+    @Bean
+    public ThreadPoolTaskExecutor embeddingExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setThreadNamePrefix("embedding-");
+        return executor;
+    }
+
+    /**
+     * Primary over the OpenAI model, which the starter still creates when configured
+     * Batches passed to embedAll are split across the executor threads
+     */
+    @Bean
+    @Primary
+    public EmbeddingModel localEmbeddingModel(@Qualifier("embeddingExecutor") ThreadPoolTaskExecutor embeddingExecutor) {
+        log.info("Using the local {} embedding model", LOCAL_MODEL_NAME);
+        return new AllMiniLmL6V2EmbeddingModel(embeddingExecutor);
+    }
+}
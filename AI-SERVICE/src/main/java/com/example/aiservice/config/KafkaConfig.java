@@ -0,0 +1,152 @@
+package com.example.aiservice.config;
+
+import com.example.aiservice.dto.DocumentDeletedEvent;
+import com.example.aiservice.dto.DocumentUploadedEvent;
+import com.example.aiservice.kafka.DocumentIngestedProducer;
+import com.example.aiservice.kafka.IngestionFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka configuration for asynchronous document ingestion and cleanup
+ * All instances share one consumer group: the document-uploaded partitions are spread
+ * over them, and each instance runs at most {@code ai.ingestion.consumer.concurrency}
+ * ingestions at a time
+ */
+@Configuration
+@EnableKafka
+@Slf4j
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        return new DefaultKafkaProducerFactory<>(configProps);
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    @Bean
+    public ConsumerFactory<String, DocumentUploadedEvent> documentUploadedConsumerFactory(
+            @Value("${spring.kafka.consumer.ingestion-group-id}") String groupId,
+            @Value("${ai.ingestion.consumer.max-poll-interval-ms}") int maxPollIntervalMs) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        // One slow ingestion per poll: a large batch would exceed max.poll.interval.ms
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        config.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, maxPollIntervalMs);
+
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, DocumentUploadedEvent.class.getName());
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "com.example.aiservice.dto");
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    /**
+     * Manual acks: the offset is committed only once the document is ingested (or given up on)
+     * Failed records are retried in place. Each failed run already published its FAILED
+     * outcome; records that failed before running (e.g. database down) are reported here
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> documentUploadedListenerContainerFactory(
+            ConsumerFactory<String, DocumentUploadedEvent> documentUploadedConsumerFactory,
+            DocumentIngestedProducer documentIngestedProducer,
+            @Value("${ai.ingestion.consumer.concurrency}") int concurrency,
+            @Value("${ai.ingestion.consumer.retry-interval-ms}") long retryIntervalMs,
+            @Value("${ai.ingestion.consumer.max-retries}") long maxRetries) {
+        ConcurrentKafkaListenerContainerFactory<String, DocumentUploadedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(documentUploadedConsumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, exception) -> {
+            log.error("Giving up ingestion of record {} after retries: {}", record.key(), exception.getMessage());
+            if (record.value() instanceof DocumentUploadedEvent event && !reported(exception)) {
+                documentIngestedProducer.sendFailed(event, exception.getMessage());
+            }
+        }, new FixedBackOff(retryIntervalMs, maxRetries));
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, DocumentDeletedEvent> documentDeletedConsumerFactory(
+            @Value("${spring.kafka.consumer.cleanup-group-id}") String groupId) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, DocumentDeletedEvent.class.getName());
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "com.example.aiservice.dto");
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    /**
+     * Failed deletions are retried, then left to the reconciliation sweep
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DocumentDeletedEvent> documentDeletedListenerContainerFactory(
+            ConsumerFactory<String, DocumentDeletedEvent> documentDeletedConsumerFactory,
+            @Value("${ai.cleanup.consumer.retry-interval-ms}") long retryIntervalMs,
+            @Value("${ai.cleanup.consumer.max-retries}") long maxRetries) {
+        ConcurrentKafkaListenerContainerFactory<String, DocumentDeletedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(documentDeletedConsumerFactory);
+        factory.setCommonErrorHandler(new DefaultErrorHandler((record, exception) ->
+                log.error("Giving up cleanup of document {}, left to the reconciliation sweep: {}",
+                        record.key(), exception.getMessage()),
+                new FixedBackOff(retryIntervalMs, maxRetries)));
+        return factory;
+    }
+
+    // The listener wraps the exception thrown by the consumer
+    private static boolean reported(Throwable exception) {
+        for (Throwable t = exception; t != null; t = t.getCause()) {
+            if (t instanceof IngestionFailedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
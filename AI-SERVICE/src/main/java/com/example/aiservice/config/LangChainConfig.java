@@ -2,24 +2,50 @@ package com.example.aiservice.config;
 
 import dev.langchain4j.memory.chat.ChatMemoryProvider;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * LangChain4j Configuration
- * Defines beans for Chat Memory
+ * Defines beans for Chat Memory and the streaming chat model
  * Note: Embedding Model and Chat Model are auto-configured by Spring Boot
  * starters
  * Note: Qdrant configuration is in QdrantConfig
+ * Note: the RAG content retriever is CachingContentRetriever
  */
 @Configuration
 public class LangChainConfig {
 
     /**
      * Chat Memory Provider for conversation isolation
+     * Messages are kept in the shared, bounded store (see PersistentChatMemoryStore)
      */
     @Bean
-    public ChatMemoryProvider chatMemoryProvider() {
-        return memoryId -> MessageWindowChatMemory.withMaxMessages(10);
+    public ChatMemoryProvider chatMemoryProvider(ChatMemoryStore chatMemoryStore,
+            @Value("${ai.chat-memory.max-messages}") int maxMessages) {
+        return memoryId -> MessageWindowChatMemory.builder()
+                .id(memoryId)
+                .maxMessages(maxMessages)
+                .chatMemoryStore(chatMemoryStore)
+                .build();
+    }
+
+    /**
+     * Streaming chat model for the SSE endpoint, configured like the blocking chat model
+     */
+    @Bean
+    public StreamingChatLanguageModel streamingChatModel(
+            @Value("${langchain4j.open-ai.chat-model.api-key}") String apiKey,
+            @Value("${langchain4j.open-ai.chat-model.model-name}") String modelName,
+            @Value("${langchain4j.open-ai.chat-model.temperature}") Double temperature) {
+        return OpenAiStreamingChatModel.builder()
+                .apiKey(apiKey)
+                .modelName(modelName)
+                .temperature(temperature)
+                .build();
     }
 }
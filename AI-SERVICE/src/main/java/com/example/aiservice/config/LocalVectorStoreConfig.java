@@ -0,0 +1,33 @@
+package com.example.aiservice.config;
+
+import com.example.aiservice.store.LuceneHnswEmbeddingStore;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * In-process vector store, replaces Qdrant when the "local-vector" profile is active
+ * (local runs and load tests without the Qdrant container)
+ */
+@Configuration
+@Profile("local-vector")
+@Slf4j
+public class LocalVectorStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public LuceneHnswEmbeddingStore embeddingStore(
+            @Value("${ai.vector.local.index-path}") String indexPath,
+            @Value("${ai.vector.local.hnsw-max-connections}") int maxConnections,
+            @Value("${ai.vector.local.hnsw-beam-width}") int beamWidth,
+            @Value("${ai.vector.local.commit-interval-ms}") long commitIntervalMs) throws IOException {
+        log.info("Using the in-process HNSW vector store instead of Qdrant");
+        return new LuceneHnswEmbeddingStore(Path.of(indexPath), maxConnections, beamWidth, commitIntervalMs);
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.aiservice.config;
 
+import com.example.aiservice.service.SegmentMetadata;
+import com.example.aiservice.store.MetadataValueScanner;
+import com.example.aiservice.store.QdrantMetadataValueScanner;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.qdrant.QdrantEmbeddingStore;
 import io.qdrant.client.QdrantClient;
@@ -10,14 +14,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.util.concurrent.ExecutionException;
 
 /**
  * Qdrant-specific configuration
  * Handles collection creation and initialization
+ * Not loaded with the "local-vector" profile (see LocalVectorStoreConfig)
  */
 @Configuration
+@Profile("!local-vector")
 @Slf4j
 public class QdrantConfig {
 
@@ -31,13 +38,14 @@ public class QdrantConfig {
     private String collectionName;
 
     @Bean
-    public QdrantClient qdrantClient() {
+    public QdrantClient qdrantClient(EmbeddingModel embeddingModel) {
         log.info("Initializing Qdrant client: {}:{}", qdrantHost, qdrantPort);
         QdrantClient client = new QdrantClient(
                 QdrantGrpcClient.newBuilder(qdrantHost, qdrantPort, false).build());
 
-        // Ensure collection exists
-        ensureCollectionExists(client);
+        // Ensure collection exists, sized for the active embedding model
+        ensureCollectionExists(client, embeddingModel.dimension());
+        ensurePayloadIndexes(client);
 
         return client;
     }
@@ -51,17 +59,29 @@ public class QdrantConfig {
                 .build();
     }
 
-    private void ensureCollectionExists(QdrantClient client) {
+    @Bean
+    public MetadataValueScanner metadataValueScanner(QdrantClient qdrantClient) {
+        return new QdrantMetadataValueScanner(qdrantClient, collectionName);
+    }
+
+    private void ensureCollectionExists(QdrantClient client, int dimension) {
         try {
             // Check if collection exists
             Collections.CollectionInfo collectionInfo = client.getCollectionInfoAsync(collectionName).get();
             log.info("Collection '{}' exists with {} vectors", collectionName, collectionInfo.getVectorsCount());
+
+            long collectionDimension = collectionInfo.getConfig().getParams().getVectorsConfig().getParams().getSize();
+            if (collectionDimension != dimension) {
+                throw new IllegalStateException("Collection '" + collectionName + "' holds " + collectionDimension
+                        + "-dimension vectors but the embedding model produces " + dimension
+                        + ": configure another langchain4j.qdrant.collection-name for this model");
+            }
         } catch (ExecutionException e) {
             if (e.getCause() instanceof io.grpc.StatusRuntimeException) {
                 io.grpc.StatusRuntimeException grpcException = (io.grpc.StatusRuntimeException) e.getCause();
                 if (grpcException.getStatus().getCode() == io.grpc.Status.Code.NOT_FOUND) {
                     log.info("Collection '{}' does not exist, creating it now...", collectionName);
-                    createCollection(client);
+                    createCollection(client, dimension);
                 } else {
                     log.error("gRPC error checking collection: {}", grpcException.getMessage());
                 }
@@ -74,18 +94,36 @@ public class QdrantConfig {
         }
     }
 
-    private void createCollection(QdrantClient client) {
+    /**
+     * Keyword indexes on the segment metadata used by the retrieval filters
+     */
+    private void ensurePayloadIndexes(QdrantClient client) {
+        for (String field : SegmentMetadata.INDEXED_FIELDS) {
+            try {
+                client.createPayloadIndexAsync(collectionName, field,
+                        Collections.PayloadSchemaType.Keyword, null, true, null, null).get();
+            } catch (ExecutionException e) {
+                log.error("Failed to create payload index '{}' on '{}'", field, collectionName, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while creating payload index '{}'", field, e);
+            }
+        }
+        log.info("Payload indexes ensured on '{}': {}", collectionName, SegmentMetadata.INDEXED_FIELDS);
+    }
+
+    private void createCollection(QdrantClient client, int dimension) {
         try {
             // Create collection with vector configuration
-            // OpenAI text-embedding-3-small uses 1536 dimensions
+            // e.g. 1536 dimensions for OpenAI text-embedding-3-small, 384 for all-MiniLM-L6-v2
             Collections.VectorParams vectorParams = Collections.VectorParams.newBuilder()
-                    .setSize(1536) // Dimension for OpenAI text-embedding-3-small
+                    .setSize(dimension)
                     .setDistance(Collections.Distance.Cosine)
                     .build();
 
             client.createCollectionAsync(collectionName, vectorParams).get();
 
-            log.info("Successfully created collection '{}'", collectionName);
+            log.info("Successfully created collection '{}' ({} dimensions)", collectionName, dimension);
         } catch (Exception e) {
             log.error("Failed to create collection '{}'", collectionName, e);
             throw new RuntimeException("Failed to create Qdrant collection", e);
@@ -0,0 +1,45 @@
+package com.example.aiservice.config;
+
+import dev.langchain4j.model.scoring.ScoringModel;
+import dev.langchain4j.model.scoring.onnx.OnnxScoringModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Optional re-ranking stage of RAG retrieval (ai.retrieval.rerank.enabled)
+ * A small cross-encoder (e.g. ms-marco-MiniLM-L-6-v2 exported to ONNX) runs on CPU, in process
+ */
+@Configuration
+@ConditionalOnProperty(name = "ai.retrieval.rerank.enabled", havingValue = "true")
+@Slf4j
+public class RerankingConfig {
+
+    @Bean
+    public ScoringModel scoringModel(@Value("${ai.retrieval.rerank.model-path}") String modelPath,
+            @Value("${ai.retrieval.rerank.tokenizer-path}") String tokenizerPath) {
+        log.info("Re-ranking retrieval results with the cross-encoder {}", modelPath);
+        return new OnnxScoringModel(modelPath, tokenizerPath);
+    }
+
+    /**
+     * Scoring threads; a full pool bypasses re-ranking rather than queueing requests
+     */
+    @Bean
+    public ThreadPoolTaskExecutor rerankingExecutor(
+            @Value("${ai.retrieval.rerank.threads}") int threads,
+            @Value("${ai.retrieval.rerank.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("reranking-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
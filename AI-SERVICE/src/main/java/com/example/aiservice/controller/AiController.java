@@ -1,13 +1,16 @@
 package com.example.aiservice.controller;
 
 import com.example.aiservice.dto.*;
+import com.example.aiservice.service.IngestionJobService;
 import com.example.aiservice.service.IngestionService;
 import com.example.aiservice.service.RagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST Controller for AI/RAG operations
@@ -20,18 +23,39 @@ import org.springframework.web.bind.annotation.*;
 public class AiController {
 
     private final IngestionService ingestionService;
+    private final IngestionJobService ingestionJobService;
     private final RagService ragService;
 
     /**
      * Ingest a document into the RAG system
      */
-    @Operation(summary = "Ingest Document", description = "Load a document from URL, split into chunks, generate embeddings, and store in vector database")
+    @Operation(summary = "Ingest Document", description = "Load a document from URL, split into chunks, generate embeddings, and store in vector database. With reingest=true, an already ingested document is refreshed: only new chunks are embedded and vanished ones deleted.")
     @PostMapping("/ingest")
-    public ResponseEntity<IngestionResponse> ingestDocument(@RequestBody IngestionRequest request) {
-        IngestionResponse response = ingestionService.ingestDocument(request);
+    public ResponseEntity<IngestionResponse> ingestDocument(@RequestBody IngestionRequest request,
+            @RequestParam(defaultValue = "false") boolean reingest) {
+        IngestionResponse response = ingestionService.ingestDocument(request, reingest);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Enqueue the ingestion of a document
+     */
+    @Operation(summary = "Enqueue Ingestion", description = "Same as /ingest (including reingest), but returns a job right away (202). The job id is used to poll its status: PENDING, RUNNING, COMPLETED or FAILED. Returns 503 when the queue is full and overflow is set to reject.")
+    @PostMapping("/ingest/jobs")
+    public ResponseEntity<IngestionJobResponse> enqueueIngestion(@RequestBody IngestionRequest request,
+            @RequestParam(defaultValue = "false") boolean reingest) {
+        return ResponseEntity.accepted().body(IngestionJobResponse.from(ingestionJobService.enqueue(request, reingest)));
+    }
+
+    /**
+     * Status and per-stage timings of an ingestion job
+     */
+    @Operation(summary = "Ingestion Job", description = "Status of an ingestion job, with the duration of each stage (load, split, embed, store) in milliseconds")
+    @GetMapping("/ingest/jobs/{jobId}")
+    public ResponseEntity<IngestionJobResponse> getIngestionJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(IngestionJobResponse.from(ingestionJobService.getJob(jobId)));
+    }
+
     /**
      * Chat with RAG system
      */
@@ -42,6 +66,24 @@ public class AiController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * One-shot RAG question, without chat memory
+     */
+    @Operation(summary = "RAG Analysis", description = "Answer a single question about a tender or submission (contextId). No conversation is created or kept.")
+    @PostMapping("/analyze")
+    public ResponseEntity<ChatResponse> analyze(@RequestBody ChatRequest request) {
+        return ResponseEntity.ok(ragService.analyze(request));
+    }
+
+    /**
+     * Chat with RAG system, streaming the answer as it is generated
+     */
+    @Operation(summary = "Streaming RAG Chat", description = "Same as /chat, but tokens are sent as Server-Sent Events as soon as they are generated. Events: sources, token, done (full answer and conversationId) or error.")
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody ChatRequest request) {
+        return ragService.chatStream(request);
+    }
+
     /**
      * Health check
      */
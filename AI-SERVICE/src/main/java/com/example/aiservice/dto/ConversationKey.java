@@ -0,0 +1,17 @@
+package com.example.aiservice.dto;
+
+/**
+ * Chat memory id carrying the tender/submission context of the conversation
+ * The chat memory itself is keyed by conversationId only (see toString), the
+ * contextId scopes retrieval (see CachingContentRetriever)
+ */
+public record ConversationKey(
+        String conversationId,
+        String contextId // Optional: tender or submission id
+) {
+
+    @Override
+    public String toString() {
+        return conversationId;
+    }
+}
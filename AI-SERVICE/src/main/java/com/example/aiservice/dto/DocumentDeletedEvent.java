@@ -0,0 +1,11 @@
+package com.example.aiservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Published by document-service once a document is removed
+ */
+public record DocumentDeletedEvent(
+        String documentId,
+        Instant timestamp) {
+}
@@ -0,0 +1,16 @@
+package com.example.aiservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Outcome of an ingestion triggered by a {@link DocumentUploadedEvent}
+ */
+public record DocumentIngestedEvent(
+        String documentId,
+        String tenderId,
+        String submissionId,
+        String status, // COMPLETED, ALREADY_EXISTS, FAILED
+        Integer chunkCount,
+        String message,
+        Instant timestamp) {
+}
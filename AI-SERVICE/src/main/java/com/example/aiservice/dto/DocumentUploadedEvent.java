@@ -0,0 +1,14 @@
+package com.example.aiservice.dto;
+
+import java.time.Instant;
+
+/**
+ * Published by tender-service and soumission-service once a document is stored
+ */
+public record DocumentUploadedEvent(
+        String documentId,
+        String documentUrl,
+        String tenderId, // Set for tender documents and submission documents
+        String submissionId, // Only set for submission documents
+        Instant timestamp) {
+}
@@ -0,0 +1,43 @@
+package com.example.aiservice.dto;
+
+import com.example.aiservice.entity.DocumentMetadata;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status of an ingestion job, with the duration of each stage in milliseconds
+ */
+public record IngestionJobResponse(
+        String jobId,
+        String documentId,
+        String status, // PENDING, RUNNING, COMPLETED, FAILED
+        Integer chunkCount,
+        Long tokenCount,
+        Integer embeddedChunkCount,
+        String errorMessage,
+        LocalDateTime enqueuedAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        Long loadMs,
+        Long splitMs,
+        Long embedMs,
+        Long storeMs) {
+
+    public static IngestionJobResponse from(DocumentMetadata job) {
+        return new IngestionJobResponse(
+                job.getId(),
+                job.getDocumentId(),
+                job.getStatus(),
+                job.getChunkCount(),
+                job.getTokenCount(),
+                job.getEmbeddedChunkCount(),
+                job.getErrorMessage(),
+                job.getEnqueuedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getLoadMs(),
+                job.getSplitMs(),
+                job.getEmbedMs(),
+                job.getStoreMs());
+    }
+}
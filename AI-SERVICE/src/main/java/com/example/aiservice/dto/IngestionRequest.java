@@ -5,6 +5,8 @@ package com.example.aiservice.dto;
  */
 public record IngestionRequest(
         String documentId, // ID from document-service
-        String documentUrl // URL to download the document
+        String documentUrl, // URL to download the document
+        String tenderId, // Optional: tender the document belongs to
+        String submissionId // Optional: submission the document belongs to
 ) {
 }
@@ -0,0 +1,10 @@
+package com.example.aiservice.dto;
+
+/**
+ * Application event published once new segments of a document are searchable
+ */
+public record SegmentsIngestedEvent(
+        String documentId,
+        String tenderId,
+        String submissionId) {
+}
@@ -0,0 +1,10 @@
+package com.example.aiservice.dto;
+
+/**
+ * Application event published once the segments of a document are no longer searchable
+ */
+public record SegmentsRemovedEvent(
+        String documentId,
+        String tenderId,
+        String submissionId) {
+}
@@ -0,0 +1,37 @@
+package com.example.aiservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One message of a conversation's chat memory, appended by the write-behind flush
+ * Rows are never updated: replicas sharing a conversation cannot overwrite each other
+ */
+@Entity
+@Table(name = "chat_memory_message", indexes = {
+        @Index(name = "idx_chat_memory_message_conversation", columnList = "conversation_id, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMemoryMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id; // Append order
+
+    @Column(nullable = false)
+    private String conversationId;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String messageJson; // Serialized with ChatMessageSerializer
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
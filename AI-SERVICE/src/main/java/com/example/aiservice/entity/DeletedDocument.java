@@ -0,0 +1,29 @@
+package com.example.aiservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a document announced deleted on the document-deleted topic
+ * The only signal the reconciliation sweep purges on: document-service keeps its
+ * documents in memory, so a document it does not know may just predate its last restart
+ */
+@Entity
+@Table(name = "deleted_document")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletedDocument {
+
+    @Id
+    private String documentId; // Reference to document-service
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
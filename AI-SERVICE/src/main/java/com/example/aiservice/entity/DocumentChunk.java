@@ -0,0 +1,42 @@
+package com.example.aiservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Manifest entry: one chunk of an ingested document and the vector it was stored as
+ */
+@Entity
+@Table(name = "document_chunk", indexes = {
+        @Index(name = "idx_document_chunk_document", columnList = "document_id, chunk_index")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentChunk {
+
+    @Id
+    private String vectorId; // Id in the vector store and the lexical index
+
+    @Column(nullable = false)
+    private String documentId; // Reference to document-service
+
+    @Column(nullable = false)
+    private Integer chunkIndex;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash; // SHA-256 of the normalized text
+
+    @Column
+    private Integer startOffset; // Position in the parsed text, null when the splitter reworded the chunk
+
+    @Column(nullable = false)
+    private Integer length;
+
+    @Column(nullable = false)
+    private Integer tokenCount;
+}
@@ -36,8 +36,59 @@ public class DocumentMetadata {
     private LocalDateTime ingestedAt;
 
     @Column
-    private Integer chunkCount; // Number of embeddings created
+    private Integer chunkCount; // Number of embeddings created, listed in document_chunk
 
     @Column
-    private String status; // PENDING, COMPLETED, FAILED
+    private Long tokenCount; // Embedding input tokens of all chunks
+
+    @Column
+    private Integer embeddedChunkCount; // Chunks embedded by the last run, the others were unchanged
+
+    @Column
+    private String status; // PENDING, RUNNING, COMPLETED, FAILED
+
+    // Everything a worker needs to run the job, possibly after a restart
+    @Column(length = 2048)
+    private String documentUrl;
+
+    @Column
+    private String tenderId;
+
+    @Column
+    private String submissionId;
+
+    @Column(length = 2000)
+    private String errorMessage;
+
+    // Job lifecycle
+    @Column
+    private LocalDateTime enqueuedAt;
+
+    @Column
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    @Column
+    private LocalDateTime heartbeatAt; // Refreshed by the worker while RUNNING, see IngestionService
+
+    // Fencing: bumped when the job is claimed or requeued, so a worker that lost its job
+    // (stalled past the lease) can no longer record the outcome
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
+
+    // Per-stage timings of the last run, in milliseconds
+    @Column
+    private Long loadMs; // download
+
+    @Column
+    private Long splitMs; // parse + split
+
+    @Column
+    private Long embedMs; // summed over the batches, which overlap with the store
+
+    @Column
+    private Long storeMs; // vector store (summed over the batches) + lexical index
 }
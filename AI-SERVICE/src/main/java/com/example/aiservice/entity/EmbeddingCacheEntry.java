@@ -0,0 +1,36 @@
+package com.example.aiservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the embedding cache: one vector per (model, normalized chunk text)
+ */
+@Entity
+@Table(name = "embedding_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmbeddingCacheEntry {
+
+    @Id
+    private String contentHash; // SHA-256 of model name + normalized text
+
+    @Column(nullable = false)
+    private String modelName;
+
+    @Column(nullable = false)
+    private Integer dimension;
+
+    @Column(nullable = false)
+    private byte[] vector; // float32 values, big-endian
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
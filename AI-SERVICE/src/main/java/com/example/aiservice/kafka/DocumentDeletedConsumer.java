@@ -0,0 +1,29 @@
+package com.example.aiservice.kafka;
+
+import com.example.aiservice.dto.DocumentDeletedEvent;
+import com.example.aiservice.service.DocumentCleanupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes the vectors of the documents announced on the document-deleted topic
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentDeletedConsumer {
+
+    private final DocumentCleanupService cleanupService;
+
+    @KafkaListener(topics = "${spring.kafka.topic.document-deleted}", containerFactory = "documentDeletedListenerContainerFactory")
+    public void consumeDocumentDeleted(@Payload DocumentDeletedEvent event) {
+        if (event == null || event.documentId() == null) {
+            return;
+        }
+        log.info("Received document-deleted event for document {}", event.documentId());
+        cleanupService.onDocumentDeleted(event.documentId());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.aiservice.kafka;
+
+import com.example.aiservice.dto.DocumentIngestedEvent;
+import com.example.aiservice.dto.DocumentUploadedEvent;
+import com.example.aiservice.dto.IngestionResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Reports ingestion outcomes back to the services waiting on them
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentIngestedProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.topic.document-ingested}")
+    private String topicName;
+
+    public void sendResult(String documentId, String tenderId, String submissionId, IngestionResponse response) {
+        send(new DocumentIngestedEvent(
+                documentId,
+                tenderId,
+                submissionId,
+                response.status(),
+                response.chunkCount(),
+                response.message(),
+                Instant.now()));
+    }
+
+    /**
+     * For records given up on before any outcome was recorded (see KafkaConfig)
+     */
+    public void sendFailed(DocumentUploadedEvent source, String message) {
+        send(new DocumentIngestedEvent(
+                source.documentId(),
+                source.tenderId(),
+                source.submissionId(),
+                "FAILED",
+                0,
+                message,
+                Instant.now()));
+    }
+
+    private void send(DocumentIngestedEvent event) {
+        try {
+            kafkaTemplate.send(topicName, event.documentId(), event);
+            log.info("Sent {} ingestion result for document {}", event.status(), event.documentId());
+        } catch (Exception e) {
+            log.error("Failed to send ingestion result for document {}. Error: {}", event.documentId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.aiservice.kafka;
+
+import com.example.aiservice.dto.DocumentUploadedEvent;
+import com.example.aiservice.dto.IngestionRequest;
+import com.example.aiservice.dto.IngestionResponse;
+import com.example.aiservice.service.IngestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ingests the documents announced on the document-uploaded topic
+ * Outcomes are published by IngestionService, not here: a job run by another worker or
+ * taken over later still reports its result
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentUploadedConsumer {
+
+    private final IngestionService ingestionService;
+
+    @KafkaListener(topics = "${spring.kafka.topic.document-uploaded}", containerFactory = "documentUploadedListenerContainerFactory")
+    public void consumeDocumentUploaded(@Payload DocumentUploadedEvent event, Acknowledgment ack) {
+        if (event == null || event.documentId() == null) {
+            ack.acknowledge();
+            return;
+        }
+        log.info("Received document-uploaded event for document {}", event.documentId());
+
+        IngestionResponse response = ingestionService.ingestDocument(
+                new IngestionRequest(event.documentId(), event.documentUrl(), event.tenderId(), event.submissionId()));
+
+        if ("FAILED".equals(response.status())) {
+            // Let the error handler retry the record; the offset is not committed
+            throw new IngestionFailedException(response.message());
+        }
+        if ("RUNNING".equals(response.status())) {
+            // Duplicate of a record another worker is ingesting: that worker publishes the result
+            log.info("Document {} already being ingested, record skipped", event.documentId());
+        }
+        ack.acknowledge();
+    }
+}
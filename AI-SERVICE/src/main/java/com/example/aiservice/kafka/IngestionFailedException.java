@@ -0,0 +1,12 @@
+package com.example.aiservice.kafka;
+
+/**
+ * A document-uploaded record whose ingestion ran and failed; the FAILED outcome was
+ * already published by IngestionService, the record is only retried
+ */
+public class IngestionFailedException extends RuntimeException {
+
+    public IngestionFailedException(String message) {
+        super(message);
+    }
+}
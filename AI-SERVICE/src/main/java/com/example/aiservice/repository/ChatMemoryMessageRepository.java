@@ -0,0 +1,39 @@
+package com.example.aiservice.repository;
+
+import com.example.aiservice.entity.ChatMemoryMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChatMemoryMessageRepository extends JpaRepository<ChatMemoryMessage, Long> {
+
+    // Latest messages first: the memory window of a conversation
+    List<ChatMemoryMessage> findByConversationIdOrderByIdDesc(String conversationId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChatMemoryMessage m WHERE m.conversationId = :conversationId")
+    int deleteByConversationId(@Param("conversationId") String conversationId);
+
+    // Rows older than the memory window are never read again
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM chat_memory_message WHERE conversation_id = :conversationId AND id <= (" +
+            "SELECT id FROM chat_memory_message WHERE conversation_id = :conversationId " +
+            "ORDER BY id DESC OFFSET :keep LIMIT 1)", nativeQuery = true)
+    int deleteBeyondWindow(@Param("conversationId") String conversationId, @Param("keep") int keep);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChatMemoryMessage m WHERE m.conversationId IN (" +
+            "SELECT c.conversationId FROM ChatMemoryMessage c GROUP BY c.conversationId HAVING MAX(c.createdAt) < :cutoff)")
+    int deleteIdleConversations(@Param("cutoff") LocalDateTime cutoff);
+}
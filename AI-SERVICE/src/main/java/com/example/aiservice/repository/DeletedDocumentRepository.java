@@ -0,0 +1,29 @@
+package com.example.aiservice.repository;
+
+import com.example.aiservice.entity.DeletedDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+@Repository
+public interface DeletedDocumentRepository extends JpaRepository<DeletedDocument, String> {
+
+    /**
+     * Redelivered deletion events keep the first tombstone
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into deleted_document (document_id, deleted_at) values (:documentId, :deletedAt) " +
+            "on conflict (document_id) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("documentId") String documentId, @Param("deletedAt") LocalDateTime deletedAt);
+
+    @Query("SELECT d.documentId FROM DeletedDocument d WHERE d.documentId IN :documentIds")
+    Set<String> findExistingDocumentIds(@Param("documentIds") Collection<String> documentIds);
+}
@@ -0,0 +1,20 @@
+package com.example.aiservice.repository;
+
+import com.example.aiservice.entity.DocumentChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, String> {
+
+    List<DocumentChunk> findByDocumentIdOrderByChunkIndex(String documentId);
+
+    @Modifying
+    @Query("DELETE FROM DocumentChunk c WHERE c.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") String documentId);
+}
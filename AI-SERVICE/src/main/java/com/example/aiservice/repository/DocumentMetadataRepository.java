@@ -1,13 +1,59 @@
 package com.example.aiservice.repository;
 
 import com.example.aiservice.entity.DocumentMetadata;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DocumentMetadataRepository extends JpaRepository<DocumentMetadata, String> {
 
     Optional<DocumentMetadata> findByDocumentId(String documentId);
+
+    List<DocumentMetadata> findByStatusOrderByEnqueuedAtAsc(String status, Pageable pageable);
+
+    // Keyset pagination of the reconciliation sweep ("" for the first page)
+    List<DocumentMetadata> findByIdGreaterThanOrderById(String afterId, Pageable pageable);
+
+    @Query("SELECT m.documentId FROM DocumentMetadata m WHERE m.documentId IN :documentIds")
+    Set<String> findExistingDocumentIds(@Param("documentIds") Collection<String> documentIds);
+
+    /**
+     * Moves a PENDING job to RUNNING; 0 when another worker got it first
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentMetadata m SET m.status = 'RUNNING', m.startedAt = :now, m.heartbeatAt = :now, " +
+            "m.version = m.version + 1 WHERE m.id = :id AND m.status = 'PENDING'")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    /**
+     * Extends the lease of the RUNNING jobs of this instance (does not change the version)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentMetadata m SET m.heartbeatAt = :now WHERE m.id IN :ids AND m.status = 'RUNNING'")
+    int heartbeat(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Puts back in the queue the jobs whose worker stopped sending heartbeats
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentMetadata m SET m.status = 'PENDING', m.version = m.version + 1 " +
+            "WHERE m.status = 'RUNNING' AND COALESCE(m.heartbeatAt, m.startedAt) < :heartbeatBefore")
+    int requeueStale(@Param("heartbeatBefore") LocalDateTime heartbeatBefore);
+
+    // Fencing check: false once the job was requeued or claimed again
+    boolean existsByIdAndVersion(String id, long version);
 }
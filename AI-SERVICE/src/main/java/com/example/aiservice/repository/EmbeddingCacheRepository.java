@@ -0,0 +1,30 @@
+package com.example.aiservice.repository;
+
+import com.example.aiservice.entity.EmbeddingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheEntry, String> {
+
+    /**
+     * Concurrent ingestions may embed the same chunk: the first insert wins, the others do nothing
+     * (save() would merge, i.e. select then insert, and fail on the primary key)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into embedding_cache (content_hash, model_name, dimension, vector, created_at) " +
+            "values (:contentHash, :modelName, :dimension, :vector, :createdAt) " +
+            "on conflict (content_hash) do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("contentHash") String contentHash,
+            @Param("modelName") String modelName,
+            @Param("dimension") int dimension,
+            @Param("vector") byte[] vector,
+            @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,127 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.dto.ConversationKey;
+import com.example.aiservice.dto.SegmentsIngestedEvent;
+import com.example.aiservice.dto.SegmentsRemovedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.rag.query.Query;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * RAG content retriever with two caches
+ * - query embeddings, keyed by normalized query text
+ * - retrieval results, keyed by (normalized query, contextId), short-lived and dropped
+ * as soon as new segments are ingested for that context; degraded results (a search leg
+ * skipped) are not cached, the next identical query searches again
+ * Searches (see HybridSearcher) are restricted to the segments of the conversation's
+ * context, if any, and re-ranked by a cross-encoder when enabled (see Reranker)
+ * Hit ratios are exposed through actuator (cache.gets metrics of queryEmbeddingCache
+ * and retrievalCache)
+ */
+@Component
+public class CachingContentRetriever implements ContentRetriever {
+
+    private final HybridSearcher hybridSearcher;
+    private final Optional<Reranker> reranker;
+    private final EmbeddingModel embeddingModel;
+    private final Cache<String, Embedding> queryEmbeddings;
+    private final Cache<RetrievalKey, List<Content>> retrievals;
+
+    record RetrievalKey(String query, String contextId) {
+    }
+
+    public CachingContentRetriever(HybridSearcher hybridSearcher,
+            Optional<Reranker> reranker,
+            EmbeddingModel embeddingModel,
+            MeterRegistry meterRegistry,
+            @Value("${ai.retrieval.cache.max-query-embeddings}") long maxQueryEmbeddings,
+            @Value("${ai.retrieval.cache.max-results}") long maxResults,
+            @Value("${ai.retrieval.cache.results-ttl}") Duration resultsTtl) {
+        this.hybridSearcher = hybridSearcher;
+        this.reranker = reranker;
+        this.embeddingModel = embeddingModel;
+        this.queryEmbeddings = Caffeine.newBuilder()
+                .maximumSize(maxQueryEmbeddings)
+                .recordStats()
+                .build();
+        this.retrievals = Caffeine.newBuilder()
+                .maximumSize(maxResults)
+                .expireAfterWrite(resultsTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, queryEmbeddings, "queryEmbeddingCache");
+        CaffeineCacheMetrics.monitor(meterRegistry, retrievals, "retrievalCache");
+    }
+
+    @Override
+    public List<Content> retrieve(Query query) {
+        // RagService passes the tender/submission context through the memory id
+        String contextId = null;
+        if (query.metadata() != null && query.metadata().chatMemoryId() instanceof ConversationKey key) {
+            contextId = key.contextId();
+        }
+        String normalized = query.text().strip().replaceAll("\\s+", " ");
+        RetrievalKey key = new RetrievalKey(normalized, contextId);
+
+        List<Content> cached = retrievals.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        HybridSearcher.Result result = search(normalized, contextId);
+        if (!result.degraded()) {
+            retrievals.put(key, result.contents());
+        }
+        return result.contents();
+    }
+
+    private HybridSearcher.Result search(String normalizedQuery, String contextId) {
+        Supplier<Embedding> queryEmbedding = () -> queryEmbeddings.get(normalizedQuery, q -> embeddingModel.embed(q).content());
+        if (reranker.isEmpty()) {
+            return hybridSearcher.search(normalizedQuery, queryEmbedding, contextId);
+        }
+        // Wider candidate set, narrowed down by the cross-encoder
+        HybridSearcher.Result candidates = hybridSearcher.search(normalizedQuery, queryEmbedding, contextId,
+                reranker.get().candidates());
+        return new HybridSearcher.Result(
+                reranker.get().rerank(normalizedQuery, candidates.contents(), HybridSearcher.MAX_RESULTS),
+                candidates.degraded());
+    }
+
+    /**
+     * New segments may change the answer for their tender/submission context, and for
+     * queries without context
+     */
+    @EventListener
+    public void onSegmentsIngested(SegmentsIngestedEvent event) {
+        invalidate(event.tenderId(), event.submissionId());
+    }
+
+    /**
+     * Same for removed segments: cached results may still cite them
+     */
+    @EventListener
+    public void onSegmentsRemoved(SegmentsRemovedEvent event) {
+        invalidate(event.tenderId(), event.submissionId());
+    }
+
+    private void invalidate(String tenderId, String submissionId) {
+        retrievals.asMap().keySet().removeIf(key -> key.contextId() == null
+                || Objects.equals(key.contextId(), tenderId)
+                || Objects.equals(key.contextId(), submissionId));
+    }
+}
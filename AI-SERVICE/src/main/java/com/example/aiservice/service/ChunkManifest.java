@@ -0,0 +1,127 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.entity.DocumentChunk;
+import com.example.aiservice.repository.DocumentChunkRepository;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.Tokenizer;
+import dev.langchain4j.model.openai.OpenAiTokenizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Per-document list of chunks and the vector ids they were stored under
+ * Deleting or re-ingesting a document works from this list instead of scanning the collection
+ */
+@Component
+@Slf4j
+public class ChunkManifest {
+
+    private final DocumentChunkRepository chunkRepository;
+    // Token counts as billed by OpenAI, whatever the provider in use
+    private final Tokenizer tokenizer;
+
+    public ChunkManifest(DocumentChunkRepository chunkRepository,
+            @Value("${langchain4j.open-ai.embedding-model.model-name}") String openAiModelName) {
+        this.chunkRepository = chunkRepository;
+        this.tokenizer = new OpenAiTokenizer(openAiModelName);
+    }
+
+    /**
+     * Manifest entries of the segments, in order; vectorIds and offsets are aligned with the segments
+     */
+    public List<DocumentChunk> describe(String documentId, List<TextSegment> segments,
+            List<String> vectorIds, List<Integer> offsets) {
+        List<DocumentChunk> chunks = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            String text = segments.get(i).text();
+            chunks.add(DocumentChunk.builder()
+                    .vectorId(vectorIds.get(i))
+                    .documentId(documentId)
+                    .chunkIndex(i)
+                    .contentHash(contentHash(text))
+                    .startOffset(offsets.get(i))
+                    .length(text.length())
+                    .tokenCount(tokenizer.estimateTokenCountInText(text))
+                    .build());
+        }
+        return chunks;
+    }
+
+    /**
+     * Chunks of a new version of a document compared with its manifest, by content hash
+     * vectorIds holds, for each segment, the vector it can keep (null when it must be
+     * embedded); removedIds are the vectors of chunks that are gone
+     */
+    public record Diff(List<String> vectorIds, List<String> removedIds, boolean isFirstVersion) {
+
+        /**
+         * Positions of the segments to embed
+         */
+        public List<Integer> added() {
+            return IntStream.range(0, vectorIds.size()).filter(i -> vectorIds.get(i) == null).boxed().toList();
+        }
+    }
+
+    public Diff diff(String documentId, List<TextSegment> segments) {
+        List<DocumentChunk> previous = find(documentId);
+        Map<String, Deque<String>> byHash = new HashMap<>();
+        for (DocumentChunk chunk : previous) {
+            byHash.computeIfAbsent(chunk.getContentHash(), h -> new ArrayDeque<>()).add(chunk.getVectorId());
+        }
+
+        // A repeated chunk reuses as many vectors as it had copies before
+        List<String> vectorIds = new ArrayList<>(segments.size());
+        for (TextSegment segment : segments) {
+            Deque<String> candidates = byHash.get(contentHash(segment.text()));
+            vectorIds.add(candidates == null ? null : candidates.poll());
+        }
+        List<String> removedIds = byHash.values().stream().flatMap(Deque::stream).toList();
+        return new Diff(vectorIds, removedIds, previous.isEmpty());
+    }
+
+    /**
+     * Replace the manifest of a document
+     */
+    @Transactional
+    public void save(String documentId, List<DocumentChunk> chunks) {
+        chunkRepository.deleteByDocumentId(documentId);
+        chunkRepository.flush();
+        chunkRepository.saveAll(chunks);
+    }
+
+    @Transactional
+    public void delete(String documentId) {
+        chunkRepository.deleteByDocumentId(documentId);
+    }
+
+    public List<DocumentChunk> find(String documentId) {
+        return chunkRepository.findByDocumentIdOrderByChunkIndex(documentId);
+    }
+
+    /**
+     * Hash of the normalized chunk text, independent of the embedding model
+     */
+    public static String contentHash(String text) {
+        String normalized = text.strip().replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.dto.SegmentsRemovedEvent;
+import com.example.aiservice.entity.DocumentChunk;
+import com.example.aiservice.entity.DocumentMetadata;
+import com.example.aiservice.repository.DeletedDocumentRepository;
+import com.example.aiservice.repository.DocumentMetadataRepository;
+import com.example.aiservice.store.MetadataValueScanner;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+/**
+ * Removes everything the AI service holds about a deleted document: vectors, lexical
+ * entries, chunk manifest and metadata
+ * Driven by document-deleted events, which leave a tombstone; a periodic sweep purges the
+ * tombstoned documents still present (cleanup given up, or ingestion finished after the
+ * deletion) and the vectors no metadata row accounts for
+ * A document document-service does not know is never purged: its database is in memory
+ */
+@Service
+@Slf4j
+public class DocumentCleanupService {
+
+    private final DocumentMetadataRepository metadataRepository;
+    private final DeletedDocumentRepository deletedDocuments;
+    private final ChunkManifest chunkManifest;
+    private final EmbeddingStore<TextSegment> embeddingStore;
+    private final MetadataValueScanner vectorDocuments;
+    private final LexicalIndex lexicalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public DocumentCleanupService(DocumentMetadataRepository metadataRepository,
+            DeletedDocumentRepository deletedDocuments,
+            ChunkManifest chunkManifest,
+            EmbeddingStore<TextSegment> embeddingStore,
+            MetadataValueScanner vectorDocuments,
+            LexicalIndex lexicalIndex,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${ai.cleanup.batch-size}") int batchSize) {
+        this.metadataRepository = metadataRepository;
+        this.deletedDocuments = deletedDocuments;
+        this.chunkManifest = chunkManifest;
+        this.embeddingStore = embeddingStore;
+        this.vectorDocuments = vectorDocuments;
+        this.lexicalIndex = lexicalIndex;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Tombstone first: if the purge fails, the sweep tries again
+     */
+    public void onDocumentDeleted(String documentId) {
+        deletedDocuments.insertIfAbsent(documentId, LocalDateTime.now());
+        purge(documentId);
+    }
+
+    /**
+     * Idempotent: purging an unknown or already purged document does nothing harmful
+     */
+    public void purge(String documentId) {
+        Optional<DocumentMetadata> metadata = metadataRepository.findByDocumentId(documentId);
+        List<String> vectorIds = chunkManifest.find(documentId).stream()
+                .map(DocumentChunk::getVectorId)
+                .toList();
+
+        if (vectorIds.isEmpty()) {
+            // No manifest (ingested before it existed, or never completed): match on the payload
+            embeddingStore.removeAll(metadataKey(SegmentMetadata.DOCUMENT_ID).isEqualTo(documentId));
+        } else {
+            removeVectors(vectorIds);
+        }
+        lexicalIndex.removeDocument(documentId);
+        chunkManifest.delete(documentId);
+        metadata.ifPresent(metadataRepository::delete);
+
+        eventPublisher.publishEvent(new SegmentsRemovedEvent(documentId,
+                metadata.map(DocumentMetadata::getTenderId).orElse(null),
+                metadata.map(DocumentMetadata::getSubmissionId).orElse(null)));
+        log.info("Document {} purged ({} vectors)", documentId, vectorIds.size());
+    }
+
+    /**
+     * Remove segments from the vector store and the lexical index, e.g. the chunks that
+     * vanished from a new version of a document
+     */
+    public void removeSegments(List<String> vectorIds) {
+        if (vectorIds.isEmpty()) {
+            return;
+        }
+        removeVectors(vectorIds);
+        lexicalIndex.removeAll(vectorIds);
+    }
+
+    private void removeVectors(List<String> vectorIds) {
+        for (int i = 0; i < vectorIds.size(); i += batchSize) {
+            embeddingStore.removeAll(vectorIds.subList(i, Math.min(i + batchSize, vectorIds.size())));
+        }
+    }
+
+    /**
+     * Walk the ingested documents page by page and purge those with a tombstone
+     * Jobs still PENDING or RUNNING are left alone: the next sweep purges them once done
+     */
+    @Scheduled(fixedDelayString = "${ai.cleanup.reconcile-interval-ms}", initialDelayString = "${ai.cleanup.reconcile-interval-ms}")
+    public void reconcile() {
+        String afterId = "";
+        int checked = 0;
+        int purged = 0;
+        List<DocumentMetadata> page;
+        do {
+            page = metadataRepository.findByIdGreaterThanOrderById(afterId, PageRequest.of(0, batchSize));
+            Set<String> deleted = page.isEmpty() ? Set.of() : deletedDocuments.findExistingDocumentIds(
+                    page.stream().map(DocumentMetadata::getDocumentId).toList());
+            for (DocumentMetadata metadata : page) {
+                if ("PENDING".equals(metadata.getStatus()) || "RUNNING".equals(metadata.getStatus())) {
+                    continue;
+                }
+                checked++;
+                if (deleted.contains(metadata.getDocumentId())) {
+                    try {
+                        purge(metadata.getDocumentId());
+                        purged++;
+                    } catch (RuntimeException e) {
+                        log.warn("Reconciliation failed to purge document {}, retried at the next sweep",
+                                metadata.getDocumentId(), e);
+                    }
+                }
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == batchSize);
+
+        log.info("Reconciliation done: {} documents checked, {} deleted ones purged", checked, purged);
+        purgeOrphanVectors();
+    }
+
+    /**
+     * Purge the documents that still have vectors but no metadata row (e.g. a purge that
+     * failed after deleting the row). A row is saved before any vector of its document,
+     * so an ingestion in progress is never taken for an orphan
+     */
+    void purgeOrphanVectors() {
+        Set<String> purged = new HashSet<>();
+        String cursor = null;
+        do {
+            MetadataValueScanner.Page page = vectorDocuments.distinctValues(SegmentMetadata.DOCUMENT_ID, cursor, batchSize);
+            Set<String> orphans = new HashSet<>(page.values());
+            orphans.removeAll(purged);
+            if (!orphans.isEmpty()) {
+                orphans.removeAll(metadataRepository.findExistingDocumentIds(orphans));
+            }
+            for (String documentId : orphans) {
+                purge(documentId);
+                purged.add(documentId);
+            }
+            cursor = page.next();
+        } while (cursor != null);
+
+        if (!purged.isEmpty()) {
+            log.warn("Reconciliation purged {} documents left in the vector store without metadata", purged.size());
+        }
+    }
+}
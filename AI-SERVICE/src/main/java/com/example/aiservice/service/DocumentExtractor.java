@@ -0,0 +1,210 @@
+package com.example.aiservice.service;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentSplitter;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.document.parser.apache.tika.ApacheTikaDocumentParser;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.segment.TextSegment;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a downloaded document into segments
+ * PDFs are read with PDFBox by page ranges in parallel, each range split as soon as its
+ * text is extracted; the full text of the document is never built. The file is parsed
+ * at most ai.ingestion.pdf.parallelism times. Other formats go through Apache Tika
+ */
+@Component
+@Slf4j
+public class DocumentExtractor {
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    // Splitter is stateless, shared by all page ranges
+    private final DocumentSplitter splitter = DocumentSplitters.recursive(
+            500, // chunk size
+            50 // overlap
+    );
+
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${ai.ingestion.pdf.pages-per-task}")
+    private int pagesPerTask;
+
+    @Value("${ai.ingestion.pdf.parallelism}")
+    private int parallelism;
+
+    public DocumentExtractor(@Qualifier("extractionExecutor") ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Segments in document order, with their start offset in the extracted text (null
+     * when not found); chars is the length of that text
+     */
+    public record Extraction(List<TextSegment> segments, List<Integer> offsets, long chars) {
+    }
+
+    /**
+     * @param metadata copied to every segment
+     */
+    public Extraction extract(Path file, Metadata metadata) throws IOException {
+        Extraction extraction = isPdf(file) ? extractPdf(file, metadata) : extractWithTika(file, metadata);
+
+        // The splitter numbers segments per range: renumber over the whole document
+        for (int i = 0; i < extraction.segments().size(); i++) {
+            extraction.segments().get(i).metadata().put("index", String.valueOf(i));
+        }
+        return extraction;
+    }
+
+    private Extraction extractWithTika(Path file, Metadata metadata) throws IOException {
+        String text;
+        try (InputStream in = Files.newInputStream(file)) {
+            text = new ApacheTikaDocumentParser().parse(in).text();
+        }
+        Document document = Document.from(text, metadata.copy());
+        List<TextSegment> segments = new ArrayList<>(splitter.split(document));
+        return new Extraction(segments, offsets(document.text(), segments), document.text().length());
+    }
+
+    private Extraction extractPdf(Path file, Metadata metadata) throws IOException {
+        long startNanos = System.nanoTime();
+        try (PDDocument pdf = load(file)) {
+            int pages = pdf.getNumberOfPages();
+            List<int[]> ranges = new ArrayList<>();
+            for (int first = 1; first <= pages; first += pagesPerTask) {
+                ranges.add(new int[]{first, Math.min(first + pagesPerTask - 1, pages)});
+            }
+
+            // PDFBox documents are not thread-safe, and each load parses the whole file:
+            // a few workers each load it once and extract a contiguous run of ranges.
+            // The caller thread takes the first run on the document it already loaded
+            int workers = Math.max(1, Math.min(parallelism, ranges.size()));
+            int rangesPerWorker = Math.max(1, (ranges.size() + workers - 1) / workers);
+            List<CompletableFuture<List<Extraction>>> others = new ArrayList<>();
+            for (int from = rangesPerWorker; from < ranges.size(); from += rangesPerWorker) {
+                List<int[]> run = ranges.subList(from, Math.min(from + rangesPerWorker, ranges.size()));
+                others.add(CompletableFuture.supplyAsync(() -> extractRanges(file, run, metadata), executor));
+            }
+
+            List<Extraction> extracted = new ArrayList<>();
+            try {
+                extracted.addAll(extractRanges(pdf, ranges.subList(0, Math.min(rangesPerWorker, ranges.size())), metadata));
+                for (CompletableFuture<List<Extraction>> other : others) {
+                    extracted.addAll(other.join());
+                }
+            } catch (RuntimeException e) {
+                others.forEach(other -> other.cancel(false));
+                throw e instanceof CompletionException && e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+
+            Extraction merged = merge(extracted);
+            if (merged.segments().isEmpty()) {
+                throw new IllegalStateException("No text found in the PDF (scanned document?)");
+            }
+            log.info("PDF extracted: {} pages in {} ranges, {} parses, {} chars in {} ms",
+                    pages, ranges.size(), 1 + others.size(), merged.chars(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return merged;
+        }
+    }
+
+    /**
+     * A run of page ranges, on its own PDDocument
+     */
+    private List<Extraction> extractRanges(Path file, List<int[]> ranges, Metadata metadata) {
+        try (PDDocument pdf = load(file)) {
+            return extractRanges(pdf, ranges, metadata);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * Each range is split as soon as its text is extracted
+     */
+    private List<Extraction> extractRanges(PDDocument pdf, List<int[]> ranges, Metadata metadata) {
+        List<Extraction> extracted = new ArrayList<>(ranges.size());
+        for (int[] range : ranges) {
+            try {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setStartPage(range[0]);
+                stripper.setEndPage(range[1]);
+                String text = stripper.getText(pdf);
+                if (text.isBlank()) {
+                    extracted.add(new Extraction(List.of(), List.of(), text.length()));
+                    continue;
+                }
+                List<TextSegment> segments = splitter.split(Document.from(text, metadata.copy()));
+                extracted.add(new Extraction(segments, offsets(text, segments), text.length()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to extract pages " + range[0] + "-" + range[1], e);
+            }
+        }
+        return extracted;
+    }
+
+    /**
+     * Concatenate range extractions, shifting their offsets by the text that precedes them
+     */
+    private static Extraction merge(List<Extraction> extracted) {
+        List<TextSegment> segments = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        long chars = 0;
+        for (Extraction extraction : extracted) {
+            segments.addAll(extraction.segments());
+            for (Integer offset : extraction.offsets()) {
+                offsets.add(offset == null ? null : Math.toIntExact(chars + offset));
+            }
+            chars += extraction.chars();
+        }
+        return new Extraction(segments, offsets, chars);
+    }
+
+    private static PDDocument load(Path file) throws IOException {
+        return PDDocument.load(file.toFile(), MemoryUsageSetting.setupTempFileOnly());
+    }
+
+    /**
+     * Chunks come in document order and overlap, so each one starts after the previous start
+     */
+    private static List<Integer> offsets(String text, List<TextSegment> segments) {
+        List<Integer> offsets = new ArrayList<>(segments.size());
+        int searchFrom = 0;
+        for (TextSegment segment : segments) {
+            int offset = text.indexOf(segment.text(), searchFrom);
+            if (offset >= 0) {
+                searchFrom = offset + 1;
+            }
+            offsets.add(offset >= 0 ? offset : null);
+        }
+        return offsets;
+    }
+
+    private static boolean isPdf(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return Arrays.equals(in.readNBytes(PDF_MAGIC.length), PDF_MAGIC);
+        }
+    }
+}
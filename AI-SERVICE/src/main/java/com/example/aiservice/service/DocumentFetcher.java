@@ -0,0 +1,102 @@
+package com.example.aiservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Downloads documents to be ingested from document-service
+ * The response body is streamed to a temporary file through a fixed-size buffer, so the
+ * memory used does not depend on the file size; parsers then read from that file
+ */
+@Component
+@Slf4j
+public class DocumentFetcher {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final long maxBytes;
+    private final Path tempDir;
+
+    public DocumentFetcher(@Value("${ai.ingestion.fetch.connect-timeout}") Duration connectTimeout,
+            @Value("${ai.ingestion.fetch.timeout}") Duration timeout,
+            @Value("${ai.ingestion.fetch.max-size-mb}") long maxSizeMb,
+            @Value("${ai.ingestion.fetch.temp-dir}") String tempDir) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.timeout = timeout;
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.tempDir = Path.of(tempDir);
+    }
+
+    /**
+     * Download the document into a new temporary file; deleting it is up to the caller
+     */
+    public Path fetch(String url) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .GET()
+                .build();
+        HttpResponse<InputStream> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url, e);
+        }
+
+        try (InputStream body = response.body()) {
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Download of " + url + " failed: HTTP " + response.statusCode());
+            }
+            OptionalLong length = response.headers().firstValueAsLong("Content-Length");
+            if (length.isPresent() && length.getAsLong() > maxBytes) {
+                throw new IOException("Document too large: " + length.getAsLong() + " bytes");
+            }
+
+            Path file = Files.createTempFile(tempDir, "ingestion-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                long copied = copy(body, out);
+                log.info("Downloaded {} bytes from {}", copied, url);
+                return file;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Copy with a size limit, for responses without Content-Length (chunked)
+     */
+    private long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            copied += read;
+            if (copied > maxBytes) {
+                throw new IOException("Document too large: more than " + maxBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.config.EmbeddingModelConfig;
+import com.example.aiservice.entity.EmbeddingCacheEntry;
+import com.example.aiservice.repository.EmbeddingCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Content-addressed embedding cache
+ * Chunks are keyed by a hash of the model name and their normalized text; lookups go
+ * through an in-memory LRU tier, then PostgreSQL, and only misses are sent to the model
+ */
+@Component
+@Slf4j
+public class EmbeddingCache {
+
+    private final EmbeddingModel embeddingModel;
+    private final EmbeddingCacheRepository cacheRepository;
+    private final String modelName;
+    private final Cache<String, float[]> memoryTier;
+
+    public EmbeddingCache(EmbeddingModel embeddingModel,
+            EmbeddingCacheRepository cacheRepository,
+            MeterRegistry meterRegistry,
+            @Value("${ai.embedding.provider}") String provider,
+            @Value("${langchain4j.open-ai.embedding-model.model-name}") String openAiModelName,
+            @Value("${ai.embedding.cache.max-memory-mb}") long maxMemoryMb) {
+        this.embeddingModel = embeddingModel;
+        this.cacheRepository = cacheRepository;
+        // Part of the cache key: vectors of different models never mix
+        this.modelName = "local".equals(provider) ? EmbeddingModelConfig.LOCAL_MODEL_NAME : openAiModelName;
+        this.memoryTier = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((String hash, float[] vector) -> vector.length * Float.BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memoryTier, "embeddingCache");
+    }
+
+    /**
+     * Embeddings of the given segments, in the same order
+     */
+    public List<Embedding> embedAll(List<TextSegment> segments) {
+        List<String> hashes = segments.stream().map(s -> hash(s.text())).toList();
+        Map<String, float[]> found = new HashMap<>(memoryTier.getAllPresent(hashes));
+
+        // 2nd tier: PostgreSQL
+        Set<String> missing = new HashSet<>(hashes);
+        missing.removeAll(found.keySet());
+        int fromMemory = found.size();
+        if (!missing.isEmpty()) {
+            for (EmbeddingCacheEntry entry : cacheRepository.findAllById(missing)) {
+                float[] vector = toFloats(entry.getVector());
+                found.put(entry.getContentHash(), vector);
+                memoryTier.put(entry.getContentHash(), vector);
+            }
+        }
+        int fromDatabase = found.size() - fromMemory;
+
+        // Misses: one embedding call, duplicates within the batch embedded once
+        Map<String, TextSegment> toEmbed = new LinkedHashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            if (!found.containsKey(hashes.get(i))) {
+                toEmbed.putIfAbsent(hashes.get(i), segments.get(i));
+            }
+        }
+        if (!toEmbed.isEmpty()) {
+            List<Embedding> computed = embeddingModel.embedAll(new ArrayList<>(toEmbed.values())).content();
+            int i = 0;
+            for (String hash : toEmbed.keySet()) {
+                float[] vector = computed.get(i++).vector();
+                found.put(hash, vector);
+                memoryTier.put(hash, vector);
+            }
+            persist(toEmbed.keySet(), found);
+        }
+
+        log.info("Embedding cache: {} chunks, {} from memory, {} from database, {} embedded",
+                segments.size(), fromMemory, fromDatabase, toEmbed.size());
+
+        return hashes.stream().map(h -> Embedding.from(found.get(h))).toList();
+    }
+
+    /**
+     * Best effort: the vectors are already computed, a failed cache write must not fail the embedding
+     */
+    private void persist(Collection<String> hashes, Map<String, float[]> vectors) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (String hash : hashes) {
+                float[] vector = vectors.get(hash);
+                cacheRepository.insertIfAbsent(hash, modelName, vector.length, toBytes(vector), now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist {} embeddings in the cache: {}", hashes.size(), e.getMessage());
+        }
+    }
+
+    private String hash(String text) {
+        String normalized = text.strip().replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(modelName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] toFloats(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
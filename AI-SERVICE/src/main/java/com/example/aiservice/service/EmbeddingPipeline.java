@@ -0,0 +1,200 @@
+package com.example.aiservice.service;
+
+import dev.ai4j.openai4j.OpenAiHttpException;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embeds segments in batches and upserts each batch as soon as it is embedded
+ * The number of batches in flight is bounded across all ingestions; the batch size
+ * grows while the provider keeps up and is halved when it answers with a rate limit
+ */
+@Component
+@Slf4j
+public class EmbeddingPipeline {
+
+    private final EmbeddingCache embeddingCache;
+    private final EmbeddingStore<TextSegment> embeddingStore;
+    private final ThreadPoolTaskExecutor executor;
+    private final Semaphore inFlight;
+    private final AtomicInteger batchSize;
+
+    @Value("${ai.embedding.batch.min-size}")
+    private int minSize;
+
+    @Value("${ai.embedding.batch.max-size}")
+    private int maxSize;
+
+    @Value("${ai.embedding.batch.increase-step}")
+    private int increaseStep;
+
+    @Value("${ai.embedding.batch.max-retries}")
+    private int maxRetries;
+
+    @Value("${ai.embedding.batch.backoff-ms}")
+    private long backoffMs;
+
+    public EmbeddingPipeline(EmbeddingCache embeddingCache,
+            EmbeddingStore<TextSegment> embeddingStore,
+            @Qualifier("embeddingBatchExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${ai.embedding.batch.max-in-flight}") int maxInFlight,
+            @Value("${ai.embedding.batch.initial-size}") int initialSize) {
+        this.embeddingCache = embeddingCache;
+        this.embeddingStore = embeddingStore;
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.batchSize = new AtomicInteger(initialSize);
+    }
+
+    /**
+     * Vector store ids of the segments, in the same order
+     * Embed and store times are summed over the batches
+     */
+    public record Result(List<String> ids, long embedMs, long storeMs) {
+    }
+
+    public Result embedAndStore(List<TextSegment> segments) {
+        AtomicLong embedNanos = new AtomicLong();
+        AtomicLong storeNanos = new AtomicLong();
+        List<CompletableFuture<List<String>>> batches = new ArrayList<>();
+
+        int offset = 0;
+        while (offset < segments.size()) {
+            // Stop feeding the provider once a batch failed
+            if (batches.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                break;
+            }
+            List<TextSegment> batch = segments.subList(offset, Math.min(offset + batchSize.get(), segments.size()));
+            offset += batch.size();
+            acquire();
+            try {
+                batches.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        long start = System.nanoTime();
+                        List<Embedding> embeddings = embed(batch);
+                        embedNanos.addAndGet(System.nanoTime() - start);
+
+                        start = System.nanoTime();
+                        List<String> ids = embeddingStore.addAll(embeddings, batch);
+                        storeNanos.addAndGet(System.nanoTime() - start);
+                        return ids;
+                    } finally {
+                        inFlight.release();
+                    }
+                }, executor));
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+        }
+
+        List<String> ids = new ArrayList<>(segments.size());
+        try {
+            for (CompletableFuture<List<String>> batch : batches) {
+                ids.addAll(batch.join());
+            }
+        } catch (CompletionException e) {
+            discardStored(batches);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (ids.size() != segments.size()) {
+            throw new IllegalStateException("Embedding aborted after " + ids.size() + " of " + segments.size() + " segments");
+        }
+
+        log.info("{} segments embedded in {} batches (next batch size {})", segments.size(), batches.size(), batchSize.get());
+        return new Result(ids, TimeUnit.NANOSECONDS.toMillis(embedNanos.get()), TimeUnit.NANOSECONDS.toMillis(storeNanos.get()));
+    }
+
+    /**
+     * Additive increase on success, multiplicative decrease on rate limit; a rate-limited
+     * batch is retried in pieces of the reduced size
+     */
+    private List<Embedding> embed(List<TextSegment> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<Embedding> embeddings = embeddingCache.embedAll(batch);
+                batchSize.updateAndGet(size -> Math.min(maxSize, size + increaseStep));
+                return embeddings;
+            } catch (RuntimeException e) {
+                if (!isRateLimited(e) || attempt > maxRetries) {
+                    throw e;
+                }
+                int reduced = batchSize.updateAndGet(size -> Math.max(minSize, size / 2));
+                log.warn("Embedding provider rate limited, batch size reduced to {} (attempt {})", reduced, attempt);
+                sleep(backoffMs * attempt);
+
+                if (batch.size() > reduced) {
+                    List<Embedding> embeddings = new ArrayList<>(batch.size());
+                    for (int i = 0; i < batch.size(); i += reduced) {
+                        embeddings.addAll(embed(batch.subList(i, Math.min(i + reduced, batch.size()))));
+                    }
+                    return embeddings;
+                }
+            }
+        }
+    }
+
+    /**
+     * Best effort removal of vectors stored by an ingestion that then failed, which no
+     * manifest lists
+     */
+    public void discard(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            embeddingStore.removeAll(ids);
+        } catch (RuntimeException e) {
+            log.warn("Failed to remove {} vectors of an aborted ingestion", ids.size(), e);
+        }
+    }
+
+    private void discardStored(List<CompletableFuture<List<String>>> batches) {
+        discard(batches.stream()
+                .map(batch -> batch.exceptionally(e -> List.of()).join())
+                .flatMap(List::stream)
+                .toList());
+    }
+
+    private static boolean isRateLimited(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OpenAiHttpException http && http.code() == 429) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void acquire() {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an embedding slot", e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during rate limit backoff", e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.aiservice.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.filter.Filter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
+/**
+ * Hybrid retrieval: vector search (Qdrant) and BM25 (LexicalIndex) run in parallel and
+ * are merged with reciprocal rank fusion
+ * Each leg has its own latency budget; a leg that is late, fails or finds the pool full
+ * contributes nothing and the answer is built from the other one, flagged as degraded
+ * Both legs have a relevance floor, so a greeting does not pull unrelated context
+ */
+@Component
+@Slf4j
+public class HybridSearcher {
+
+    // Optimized: higher minScore and lower maxResults to avoid irrelevant context
+    // for greetings
+    public static final int MAX_RESULTS = 3;
+    private static final double MIN_SCORE = 0.6;
+
+    private final EmbeddingStore<TextSegment> embeddingStore;
+    private final LexicalIndex lexicalIndex;
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${ai.retrieval.hybrid.rrf-k}")
+    private int rrfK;
+
+    @Value("${ai.retrieval.hybrid.candidates-per-leg}")
+    private int candidatesPerLeg;
+
+    @Value("${ai.retrieval.hybrid.vector-budget-ms}")
+    private long vectorBudgetMs;
+
+    @Value("${ai.retrieval.hybrid.lexical-budget-ms}")
+    private long lexicalBudgetMs;
+
+    @Value("${ai.retrieval.hybrid.lexical-min-score}")
+    private double lexicalMinScore;
+
+    public HybridSearcher(EmbeddingStore<TextSegment> embeddingStore,
+            LexicalIndex lexicalIndex,
+            @Qualifier("retrievalExecutor") ThreadPoolTaskExecutor executor) {
+        this.embeddingStore = embeddingStore;
+        this.lexicalIndex = lexicalIndex;
+        this.executor = executor;
+    }
+
+    record Ranked(String id, TextSegment segment) {
+    }
+
+    /**
+     * @param degraded a leg was skipped: the contents come from the other one only
+     */
+    public record Result(List<Content> contents, boolean degraded) {
+    }
+
+    /**
+     * @param queryEmbedding computed inside the vector leg, so its latency counts against that budget
+     */
+    public Result search(String query, Supplier<Embedding> queryEmbedding, String contextId) {
+        return search(query, queryEmbedding, contextId, MAX_RESULTS);
+    }
+
+    /**
+     * @param maxResults more than MAX_RESULTS when the results are re-ranked afterwards
+     */
+    public Result search(String query, Supplier<Embedding> queryEmbedding, String contextId, int maxResults) {
+        int perLeg = Math.max(candidatesPerLeg, maxResults);
+        CompletableFuture<List<Ranked>> vector = leg("vector", vectorBudgetMs,
+                () -> vectorSearch(queryEmbedding.get(), contextId, perLeg));
+        CompletableFuture<List<Ranked>> lexical = leg("lexical", lexicalBudgetMs,
+                () -> lexicalIndex.search(query, contextId, perLeg).stream()
+                        .filter(hit -> hit.score() >= lexicalMinScore)
+                        .map(hit -> new Ranked(hit.id(), hit.segment()))
+                        .toList());
+
+        List<List<Ranked>> legs = Stream.of(vector.join(), lexical.join()).filter(Objects::nonNull).toList();
+        return new Result(fuse(legs, maxResults), legs.size() < 2);
+    }
+
+    /**
+     * Completes with null when the leg is skipped
+     */
+    private CompletableFuture<List<Ranked>> leg(String name, long budgetMs, Supplier<List<Ranked>> search) {
+        CompletableFuture<List<Ranked>> started;
+        try {
+            started = CompletableFuture.supplyAsync(search, executor);
+        } catch (TaskRejectedException e) {
+            // Pool saturated: running the leg in the caller thread would ignore its budget
+            log.warn("Retrieval leg '{}' skipped: pool full", name);
+            return CompletableFuture.completedFuture(null);
+        }
+        return started
+                .orTimeout(budgetMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Retrieval leg '{}' skipped: {}", name, e.toString());
+                    return null;
+                });
+    }
+
+    private List<Ranked> vectorSearch(Embedding embedding, String contextId, int maxResults) {
+        return embeddingStore.search(EmbeddingSearchRequest.builder()
+                        .queryEmbedding(embedding)
+                        .maxResults(maxResults)
+                        .minScore(MIN_SCORE)
+                        .filter(contextFilter(contextId))
+                        .build())
+                .matches().stream()
+                .map(match -> new Ranked(match.embeddingId(), match.embedded()))
+                .toList();
+    }
+
+    /**
+     * Reciprocal rank fusion: score = sum over legs of 1 / (k + rank)
+     */
+    private List<Content> fuse(List<List<Ranked>> legs, int maxResults) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        Map<String, TextSegment> segments = new LinkedHashMap<>();
+        for (List<Ranked> leg : legs) {
+            for (int rank = 0; rank < leg.size(); rank++) {
+                Ranked r = leg.get(rank);
+                scores.merge(r.id(), 1.0 / (rrfK + rank + 1), Double::sum);
+                segments.putIfAbsent(r.id(), r.segment());
+            }
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(maxResults)
+                .map(e -> Content.from(segments.get(e.getKey())))
+                .toList();
+    }
+
+    /**
+     * A tender context sees the tender's own documents; a submission context sees the
+     * submission's documents. Other suppliers' submissions are never returned.
+     * Served by the Qdrant payload indexes created in QdrantConfig
+     */
+    private static Filter contextFilter(String contextId) {
+        if (contextId == null) {
+            return null;
+        }
+        return metadataKey(SegmentMetadata.OWNER_TYPE).isEqualTo(SegmentMetadata.OWNER_TENDER)
+                .and(metadataKey(SegmentMetadata.TENDER_ID).isEqualTo(contextId))
+                .or(metadataKey(SegmentMetadata.SUBMISSION_ID).isEqualTo(contextId));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.dto.IngestionRequest;
+import com.example.aiservice.entity.DocumentMetadata;
+import com.example.aiservice.repository.DocumentMetadataRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous ingestion: jobs are recorded in PostgreSQL and run on a bounded
+ * worker pool. When the pool queue is full a job either stays PENDING in the
+ * database until a worker frees up (spill) or is refused (reject)
+ */
+@Service
+@Slf4j
+public class IngestionJobService {
+
+    private final IngestionService ingestionService;
+    private final DocumentMetadataRepository metadataRepository;
+    private final ThreadPoolTaskExecutor ingestionExecutor;
+    private final boolean spill;
+    private final Duration staleAfter;
+
+    // Jobs handed to the pool and not finished yet, so the poller does not submit them twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IngestionJobService(IngestionService ingestionService,
+                               DocumentMetadataRepository metadataRepository,
+                               @Qualifier("ingestionExecutor") ThreadPoolTaskExecutor ingestionExecutor,
+                               @Value("${ai.ingestion.jobs.overflow}") String overflow,
+                               @Value("${ai.ingestion.jobs.stale-after}") Duration staleAfter) {
+        this.ingestionService = ingestionService;
+        this.metadataRepository = metadataRepository;
+        this.ingestionExecutor = ingestionExecutor;
+        this.spill = "spill".equalsIgnoreCase(overflow);
+        this.staleAfter = staleAfter;
+    }
+
+    /**
+     * Enqueue the ingestion of a document and return its job right away
+     */
+    public DocumentMetadata enqueue(IngestionRequest request, boolean reingest) {
+        DocumentMetadata job = ingestionService.register(request, reingest);
+        if (!"PENDING".equals(job.getStatus()) || submit(job.getId())) {
+            return job;
+        }
+        if (spill) {
+            log.info("Ingestion queue full, job {} spilled to the database", job.getId());
+            return job;
+        }
+
+        job.setStatus("FAILED");
+        job.setErrorMessage("Rejected: ingestion queue full");
+        job.setFinishedAt(LocalDateTime.now());
+        metadataRepository.save(job);
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ingestion queue full, retry later");
+    }
+
+    public DocumentMetadata getJob(String jobId) {
+        return metadataRepository.findById(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ingestion job not found"));
+    }
+
+    /**
+     * Feed the pool with the PENDING jobs it has room for: spilled jobs, jobs left
+     * by a previous run, and RUNNING jobs whose worker stopped sending heartbeats
+     */
+    @Scheduled(fixedDelayString = "${ai.ingestion.jobs.poll-interval-ms}")
+    public void drainPending() {
+        int requeued = metadataRepository.requeueStale(LocalDateTime.now().minus(staleAfter));
+        if (requeued > 0) {
+            log.warn("{} stale ingestion jobs put back in the queue", requeued);
+        }
+
+        int room = ingestionExecutor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<DocumentMetadata> pending = metadataRepository.findByStatusOrderByEnqueuedAtAsc(
+                "PENDING", PageRequest.of(0, room + inFlight.size()));
+        for (DocumentMetadata job : pending) {
+            if (!inFlight.contains(job.getId()) && !submit(job.getId())) {
+                return;
+            }
+        }
+    }
+
+    private boolean submit(String jobId) {
+        if (!inFlight.add(jobId)) {
+            return true;
+        }
+        try {
+            ingestionExecutor.execute(() -> runJob(jobId));
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(jobId);
+            return false;
+        }
+    }
+
+    private void runJob(String jobId) {
+        try {
+            // Claimed in the database: several instances may poll the same jobs
+            if (!ingestionService.claim(jobId)) {
+                return;
+            }
+            metadataRepository.findById(jobId).ifPresent(ingestionService::run);
+        } catch (Exception e) {
+            log.error("Ingestion job {} crashed", jobId, e);
+        } finally {
+            inFlight.remove(jobId);
+        }
+    }
+}
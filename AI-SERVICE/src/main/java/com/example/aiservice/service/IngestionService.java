@@ -2,123 +2,332 @@ package com.example.aiservice.service;
 
 import com.example.aiservice.dto.IngestionRequest;
 import com.example.aiservice.dto.IngestionResponse;
+import com.example.aiservice.dto.SegmentsIngestedEvent;
+import com.example.aiservice.entity.DocumentChunk;
 import com.example.aiservice.entity.DocumentMetadata;
+import com.example.aiservice.kafka.DocumentIngestedProducer;
 import com.example.aiservice.repository.DocumentMetadataRepository;
-import dev.langchain4j.data.document.Document;
-import dev.langchain4j.data.document.DocumentSplitter;
-import dev.langchain4j.data.document.loader.UrlDocumentLoader;
-import dev.langchain4j.data.document.parser.apache.tika.ApacheTikaDocumentParser;
-import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.data.segment.TextSegment;
-import dev.langchain4j.model.embedding.EmbeddingModel;
-import dev.langchain4j.store.embedding.EmbeddingStore;
-import dev.langchain4j.store.embedding.EmbeddingStoreIngestor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for ingesting documents into the RAG system
  * Downloads documents, splits them into chunks, generates embeddings, and
  * stores in Qdrant
+ *
+ * Each ingestion is tracked as a job on its DocumentMetadata row
+ * (PENDING, RUNNING, COMPLETED or FAILED). Nothing here is transactional:
+ * no database connection is held while downloading or embedding
+ *
+ * Every outcome recorded for a job of a tender or a submission is also published on
+ * document-ingested, whoever ran the job (Kafka consumer, job queue, takeover of a stale job)
+ *
+ * A RUNNING job is leased: its worker sends heartbeats, and a job without
+ * heartbeat is requeued (IngestionJobService). Claiming or requeuing bumps
+ * the job version, which fences off a worker that stalled past its lease:
+ * it can no longer save the manifest nor record the outcome
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IngestionService {
 
+        private static final int MAX_ERROR_LENGTH = 2000;
+
         private final DocumentMetadataRepository metadataRepository;
-        private final EmbeddingStore<TextSegment> embeddingStore;
-        private final EmbeddingModel embeddingModel;
+        private final DocumentFetcher documentFetcher;
+        private final DocumentExtractor documentExtractor;
+        private final EmbeddingPipeline embeddingPipeline;
+        private final ChunkManifest chunkManifest;
+        private final DocumentCleanupService cleanupService;
+        private final LexicalIndex lexicalIndex;
+        private final ApplicationEventPublisher eventPublisher;
+        private final DocumentIngestedProducer documentIngestedProducer;
+
+        // Jobs run by this instance, whose lease is extended by heartbeat()
+        private final Set<String> running = ConcurrentHashMap.newKeySet();
 
         /**
-         * Ingest a document from the document-service
+         * Ingest a document from the document-service, in the caller thread
          */
-        @Transactional
         public IngestionResponse ingestDocument(IngestionRequest request) {
-                log.info("Starting ingestion for document: {}", request.documentId());
+                return ingestDocument(request, false);
+        }
+
+        /**
+         * @param reingest ingest again an already ingested document (new version); only the
+         *                 chunks that changed are embedded
+         */
+        public IngestionResponse ingestDocument(IngestionRequest request, boolean reingest) {
+                log.info("Starting {} for document: {}", reingest ? "re-ingestion" : "ingestion", request.documentId());
+
+                DocumentMetadata job = register(request, reingest);
+                if ("COMPLETED".equals(job.getStatus())) {
+                        // Answered again: the waiting side may have missed the first result
+                        return report(job, new IngestionResponse(
+                                        request.documentId(),
+                                        "ALREADY_EXISTS",
+                                        job.getChunkCount(),
+                                        "Document already ingested"));
+                }
+                if (!claim(job.getId())) {
+                        return alreadyRunning(request.documentId());
+                }
+                // Reloaded for the version set by the claim
+                return metadataRepository.findById(job.getId())
+                                .map(this::run)
+                                .orElseGet(() -> alreadyRunning(request.documentId()));
+        }
+
+        /**
+         * Record a PENDING job for the document, or return the current one
+         * Redeliveries are expected (Kafka at-least-once): only a FAILED ingestion
+         * is started again, in place, or a COMPLETED one when re-ingesting
+         */
+        public DocumentMetadata register(IngestionRequest request, boolean reingest) {
+                Optional<DocumentMetadata> existing = metadataRepository.findByDocumentId(request.documentId());
+                String status = existing.map(DocumentMetadata::getStatus).orElse(null);
+                if (existing.isPresent() && !"FAILED".equals(status) && !(reingest && "COMPLETED".equals(status))) {
+                        return existing.get();
+                }
+
+                LocalDateTime now = LocalDateTime.now();
+                DocumentMetadata job = DocumentMetadata.builder()
+                                .id(existing.map(DocumentMetadata::getId).orElse(null))
+                                .documentId(request.documentId())
+                                .documentUrl(request.documentUrl())
+                                .tenderId(request.tenderId())
+                                .submissionId(request.submissionId())
+                                .fileName(extractFileName(request.documentUrl()))
+                                .contentType("application/pdf") // TODO: detect from URL
+                                .ingestedAt(now)
+                                .enqueuedAt(now)
+                                .status("PENDING")
+                                .version(existing.map(DocumentMetadata::getVersion).orElse(0L))
+                                .build();
+                return metadataRepository.save(job);
+        }
+
+        /**
+         * Take a PENDING job; false when another worker already did
+         */
+        public boolean claim(String jobId) {
+                return metadataRepository.claim(jobId, LocalDateTime.now()) == 1;
+        }
+
+        /**
+         * Extend the lease of the jobs running on this instance
+         */
+        @Scheduled(fixedDelayString = "${ai.ingestion.jobs.heartbeat-interval-ms}")
+        public void heartbeat() {
+                if (!running.isEmpty()) {
+                        metadataRepository.heartbeat(List.copyOf(running), LocalDateTime.now());
+                }
+        }
+
+        /**
+         * Run a claimed job and record its outcome and per-stage timings
+         * The job must be the row as read after the claim (current version)
+         */
+        public IngestionResponse run(DocumentMetadata job) {
+                IngestionRequest request = new IngestionRequest(
+                                job.getDocumentId(), job.getDocumentUrl(), job.getTenderId(), job.getSubmissionId());
+                job.setStatus("RUNNING");
+                job.setStartedAt(LocalDateTime.now());
+                job.setLoadMs(null);
+                job.setSplitMs(null);
+                job.setEmbedMs(null);
+                job.setStoreMs(null);
+                job.setTokenCount(null);
+                job.setEmbeddedChunkCount(null);
+                job.setErrorMessage(null);
 
+                long stageStart = System.nanoTime();
+                Path file = null;
+                running.add(job.getId());
                 try {
-                        // 1. Check if already ingested
-                        if (metadataRepository.findByDocumentId(request.documentId()).isPresent()) {
-                                return new IngestionResponse(
-                                                request.documentId(),
-                                                "ALREADY_EXISTS",
-                                                null,
-                                                "Document already ingested");
+                        // 1. Download document from URL (streamed to a temporary file)
+                        file = documentFetcher.fetch(request.documentUrl());
+                        job.setLoadMs(millisSince(stageStart));
+
+                        // 2. Parse and split into chunks (PDFs by page ranges, in parallel)
+                        stageStart = System.nanoTime();
+                        Metadata metadata = new Metadata();
+                        SegmentMetadata.tag(metadata, request);
+                        DocumentExtractor.Extraction extraction = documentExtractor.extract(file, metadata);
+                        List<TextSegment> segments = extraction.segments();
+                        log.info("Document loaded: {} chars", extraction.chars());
+                        job.setSplitMs(millisSince(stageStart));
+
+                        // 3. Compare with the chunks of the previous version, if any: unchanged chunks
+                        // keep their vectors
+                        ChunkManifest.Diff diff = chunkManifest.diff(request.documentId(), segments);
+                        List<Integer> addedPositions = diff.added();
+                        List<TextSegment> added = addedPositions.stream().map(segments::get).toList();
+
+                        // 4. Create embeddings (only for chunks not seen before) and store them in Qdrant,
+                        // batch by batch
+                        EmbeddingPipeline.Result stored = embeddingPipeline.embedAndStore(added);
+                        job.setEmbedMs(stored.embedMs());
+                        List<String> ids = new ArrayList<>(diff.vectorIds());
+                        for (int i = 0; i < added.size(); i++) {
+                                ids.set(addedPositions.get(i), stored.ids().get(i));
+                        }
+
+                        // 5. Index in the lexical index, then record which vectors belong to the
+                        // document. Unchanged chunks are indexed again (same id, replaced in place):
+                        // chunks of a version ingested before the lexical index existed, or lost with
+                        // its last uncommitted writes, get their entry back. Until the manifest is
+                        // saved the new vectors belong to nobody: any failure removes them
+                        stageStart = System.nanoTime();
+                        List<DocumentChunk> chunks = chunkManifest.describe(
+                                        request.documentId(), segments, ids, extraction.offsets());
+                        try {
+                                if (!metadataRepository.existsByIdAndVersion(job.getId(), job.getVersion())) {
+                                        throw new LeaseLostException(job.getId());
+                                }
+                                lexicalIndex.addAll(ids, segments);
+                                chunkManifest.save(request.documentId(), chunks);
+                        } catch (RuntimeException e) {
+                                embeddingPipeline.discard(stored.ids());
+                                try {
+                                        lexicalIndex.removeAll(stored.ids());
+                                } catch (RuntimeException cleanupFailure) {
+                                        e.addSuppressed(cleanupFailure);
+                                }
+                                throw e;
+                        }
+
+                        // 6. Drop the chunks that vanished, last: the manifest no longer lists them.
+                        // A failure here leaves stale vectors, not a manifest pointing to missing ones
+                        try {
+                                cleanupService.removeSegments(diff.removedIds());
+                        } catch (RuntimeException e) {
+                                log.error("Document {}: failed to remove {} stale chunks",
+                                                request.documentId(), diff.removedIds().size(), e);
                         }
+                        job.setStoreMs(stored.storeMs() + millisSince(stageStart));
+                        log.info("Document {}: {} chunks embedded and stored, {} unchanged, {} removed",
+                                        request.documentId(), added.size(), segments.size() - added.size(),
+                                        diff.removedIds().size());
+                        eventPublisher.publishEvent(new SegmentsIngestedEvent(
+                                        request.documentId(), request.tenderId(), request.submissionId()));
+
+                        // 7. Save metadata to PostgreSQL
+                        job.setChunkCount(segments.size());
+                        job.setEmbeddedChunkCount(added.size());
+                        job.setTokenCount(chunks.stream().mapToLong(DocumentChunk::getTokenCount).sum());
+                        job.setStatus("COMPLETED");
+                        job.setIngestedAt(LocalDateTime.now());
+                        job.setFinishedAt(job.getIngestedAt());
+                        metadataRepository.save(job);
+                        log.info("Document {} ingested (load {} ms, split {} ms, embed {} ms, store {} ms)",
+                                        request.documentId(), job.getLoadMs(), job.getSplitMs(),
+                                        job.getEmbedMs(), job.getStoreMs());
 
-                        // 2. Download document from URL
-                        Document document = UrlDocumentLoader.load(
-                                        request.documentUrl(),
-                                        new ApacheTikaDocumentParser());
-                        log.info("Document loaded: {} chars", document.text().length());
-
-                        // 3. Configure splitter
-                        DocumentSplitter splitter = DocumentSplitters.recursive(
-                                        500, // chunk size
-                                        50 // overlap
-                        );
-
-                        // 4. Create embeddings and store in Qdrant
-                        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
-                                        .embeddingStore(embeddingStore)
-                                        .embeddingModel(embeddingModel)
-                                        .documentSplitter(splitter)
-                                        .build();
-
-                        ingestor.ingest(document);
-                        log.info("Embeddings stored in Qdrant");
-
-                        // 5. Save metadata to PostgreSQL
-                        // Note: We don't have direct access to segment count, estimate from document
-                        // size
-                        int estimatedChunks = document.text().length() / 500;
-                        DocumentMetadata metadata = DocumentMetadata.builder()
-                                        .documentId(request.documentId())
-                                        .fileName(extractFileName(request.documentUrl()))
-                                        .contentType("application/pdf") // TODO: detect from URL
-                                        .ingestedAt(LocalDateTime.now())
-                                        .chunkCount(estimatedChunks)
-                                        .status("COMPLETED")
-                                        .build();
-
-                        metadataRepository.save(metadata);
-
-                        return new IngestionResponse(
+                        return report(job, new IngestionResponse(
                                         request.documentId(),
                                         "COMPLETED",
-                                        estimatedChunks,
-                                        "Document successfully ingested");
+                                        segments.size(),
+                                        diff.isFirstVersion()
+                                                        ? "Document successfully ingested"
+                                                        : String.format("Document re-ingested: %d new, %d unchanged, %d removed chunks",
+                                                                        added.size(), segments.size() - added.size(), diff.removedIds().size())));
 
+                } catch (LeaseLostException | ObjectOptimisticLockingFailureException e) {
+                        // Requeued while stalled: the job is PENDING again and the worker that takes it
+                        // over (IngestionJobService) records and publishes the outcome, see report()
+                        log.warn("Ingestion job {} of document {} was taken over, outcome dropped",
+                                        job.getId(), request.documentId());
+                        return alreadyRunning(request.documentId());
                 } catch (Exception e) {
                         log.error("Ingestion failed for document: {}", request.documentId(), e);
 
                         // Save failed status
-                        DocumentMetadata metadata = DocumentMetadata.builder()
-                                        .documentId(request.documentId())
-                                        .fileName(extractFileName(request.documentUrl()))
-                                        .contentType("unknown")
-                                        .ingestedAt(LocalDateTime.now())
-                                        .chunkCount(0)
-                                        .status("FAILED")
-                                        .build();
-                        metadataRepository.save(metadata);
-
-                        return new IngestionResponse(
+                        String error = String.valueOf(e.getMessage());
+                        job.setContentType("unknown");
+                        job.setChunkCount(0);
+                        job.setStatus("FAILED");
+                        job.setErrorMessage(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+                        job.setIngestedAt(LocalDateTime.now());
+                        job.setFinishedAt(job.getIngestedAt());
+                        try {
+                                metadataRepository.save(job);
+                        } catch (ObjectOptimisticLockingFailureException lost) {
+                                log.warn("Ingestion job {} was taken over, failure not recorded", job.getId());
+                                return alreadyRunning(request.documentId());
+                        }
+
+                        return report(job, new IngestionResponse(
                                         request.documentId(),
                                         "FAILED",
                                         0,
-                                        "Ingestion failed: " + e.getMessage());
+                                        "Ingestion failed: " + e.getMessage()));
+                } finally {
+                        running.remove(job.getId());
+                        deleteQuietly(file);
+                }
+        }
+
+        /**
+         * Publish the outcome recorded for the job, when a tender or a submission waits on it
+         */
+        private IngestionResponse report(DocumentMetadata job, IngestionResponse response) {
+                if (job.getTenderId() != null || job.getSubmissionId() != null) {
+                        documentIngestedProducer.sendResult(
+                                        job.getDocumentId(), job.getTenderId(), job.getSubmissionId(), response);
+                }
+                return response;
+        }
+
+        private static IngestionResponse alreadyRunning(String documentId) {
+                return new IngestionResponse(
+                                documentId,
+                                "RUNNING",
+                                null,
+                                "Ingestion already in progress");
+        }
+
+        private static void deleteQuietly(Path file) {
+                if (file == null) {
+                        return;
                 }
+                try {
+                        Files.deleteIfExists(file);
+                } catch (IOException e) {
+                        log.warn("Failed to delete temporary file {}", file, e);
+                }
+        }
+
+        private static long millisSince(long startNanos) {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         }
 
         private String extractFileName(String url) {
                 String[] parts = url.split("/");
                 return parts[parts.length - 1];
         }
+
+        private static class LeaseLostException extends RuntimeException {
+                LeaseLostException(String jobId) {
+                        super("Ingestion job " + jobId + " was requeued by another worker");
+                }
+        }
 }
@@ -0,0 +1,249 @@
+package com.example.aiservice.service;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.QueryVisitor;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded Lucene (BM25) index of the ingested segments, kept alongside Qdrant
+ * Catches exact identifiers (lot numbers, article references, amounts) that dense
+ * embeddings retrieve poorly. Segments share their Qdrant embedding id
+ * Writes are visible to searches at once (near-real-time reader) and committed to disk
+ * periodically and on close, like the local vector store
+ * Local to the instance: AI-SERVICE runs as a single instance, see LexicalIndexLock
+ */
+@Component
+@DependsOn("lexicalIndexLock")
+@Slf4j
+public class LexicalIndex {
+
+    private static final String ID = "id";
+    private static final String TEXT = "text";
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ScheduledExecutorService committer;
+
+    public LexicalIndex(@Value("${ai.lexical.index-path}") String indexPath,
+            @Value("${ai.lexical.commit-interval-ms}") long commitIntervalMs) throws IOException {
+        this.directory = FSDirectory.open(Path.of(indexPath));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lexical-index-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitQuietly, commitIntervalMs, commitIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Lexical index opened at {} ({} segments)", indexPath, writer.getDocStats().numDocs);
+    }
+
+    /**
+     * Index segments under the ids they were given in the embedding store
+     */
+    public void addAll(List<String> ids, List<TextSegment> segments) {
+        try {
+            for (int i = 0; i < segments.size(); i++) {
+                TextSegment segment = segments.get(i);
+                Document doc = new Document();
+                doc.add(new StringField(ID, ids.get(i), Field.Store.YES));
+                doc.add(new TextField(TEXT, segment.text(), Field.Store.YES));
+                for (String key : SegmentMetadata.INDEXED_FIELDS) {
+                    String value = segment.metadata().getString(key);
+                    if (value != null) {
+                        doc.add(new StringField(key, value, Field.Store.YES));
+                    }
+                }
+                writer.updateDocument(new Term(ID, ids.get(i)), doc);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index segments", e);
+        }
+    }
+
+    /**
+     * Remove segments by id
+     */
+    public void removeAll(Collection<String> ids) {
+        try {
+            writer.deleteDocuments(ids.stream().map(id -> new Term(ID, id)).toArray(Term[]::new));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove segments", e);
+        }
+    }
+
+    /**
+     * Remove every segment of a document
+     */
+    public void removeDocument(String documentId) {
+        try {
+            writer.deleteDocuments(new Term(SegmentMetadata.DOCUMENT_ID, documentId));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove segments of document " + documentId, e);
+        }
+    }
+
+    /**
+     * BM25 search, restricted to the tender/submission context if any
+     * (same rules as the vector search, see HybridSearcher)
+     * Hits are scored in [0, 1], see normalizer()
+     */
+    public List<Hit> search(String queryText, String contextId, int maxResults) {
+        Query query;
+        try {
+            query = new QueryParser(TEXT, analyzer).parse(QueryParser.escape(queryText));
+        } catch (ParseException e) {
+            // Nothing searchable left after analysis (e.g. only stop words)
+            return List.of();
+        }
+        Set<Term> queryTerms = new HashSet<>();
+        query.visit(QueryVisitor.termCollector(queryTerms));
+        if (contextId != null) {
+            query = new BooleanQuery.Builder()
+                    .add(query, BooleanClause.Occur.MUST)
+                    .add(contextFilter(contextId), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            double normalizer = normalizer(searcher, queryTerms);
+            StoredFields storedFields = searcher.storedFields();
+            List<Hit> hits = new ArrayList<>();
+            for (ScoreDoc scoreDoc : searcher.search(query, maxResults).scoreDocs) {
+                Document doc = storedFields.document(scoreDoc.doc);
+                Map<String, Object> metadata = new HashMap<>();
+                for (IndexableField field : doc.getFields()) {
+                    if (!ID.equals(field.name()) && !TEXT.equals(field.name())) {
+                        metadata.put(field.name(), field.stringValue());
+                    }
+                }
+                hits.add(new Hit(doc.get(ID), TextSegment.from(doc.get(TEXT), Metadata.from(metadata)),
+                        normalizer > 0 ? scoreDoc.score / normalizer : 0));
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lexical search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release lexical searcher", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Upper bound of the BM25 score of the query: the sum of the idf of its terms (a term
+     * scores idf * tf / (tf + length norm), below its idf). Terms missing from the index
+     * count too, so a query that mostly matches nothing scores low
+     */
+    private static double normalizer(IndexSearcher searcher, Set<Term> queryTerms) throws IOException {
+        long docCount = searcher.getIndexReader().getDocCount(TEXT);
+        double sum = 0;
+        for (Term term : queryTerms) {
+            int docFreq = searcher.getIndexReader().docFreq(term);
+            sum += Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+        }
+        return sum;
+    }
+
+    private static Query contextFilter(String contextId) {
+        Query tenderDocuments = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(SegmentMetadata.OWNER_TYPE, SegmentMetadata.OWNER_TENDER)), BooleanClause.Occur.FILTER)
+                .add(new TermQuery(new Term(SegmentMetadata.TENDER_ID, contextId)), BooleanClause.Occur.FILTER)
+                .build();
+        return new BooleanQuery.Builder()
+                .add(tenderDocuments, BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(SegmentMetadata.SUBMISSION_ID, contextId)), BooleanClause.Occur.SHOULD)
+                .setMinimumNumberShouldMatch(1)
+                .build();
+    }
+
+    /**
+     * Snapshot the writes so far to disk
+     */
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        // Not interrupted: an interrupt during a Lucene write closes its file channels
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to commit the lexical index", e);
+        }
+    }
+
+    /**
+     * @param score BM25 score divided by its upper bound for the query, in [0, 1]
+     */
+    public record Hit(String id, TextSegment segment, double score) {
+    }
+}
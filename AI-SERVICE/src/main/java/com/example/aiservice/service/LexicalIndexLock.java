@@ -0,0 +1,63 @@
+package com.example.aiservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Keeps a second AI-SERVICE instance from starting: the lexical index is a local directory,
+ * while the Kafka consumer groups spread ingestions and cleanups over every instance, so each
+ * index would only hold the documents its own instance ingested
+ * PostgreSQL session advisory lock, held on a dedicated connection as long as the instance runs
+ * Running several instances needs the lexical index moved to a shared store first
+ */
+@Component
+@Slf4j
+public class LexicalIndexLock {
+
+    // Arbitrary key, unique among the advisory locks taken on ai_db
+    private static final long LOCK_ID = 0x4c455849434c4bL;
+
+    private final Connection connection;
+
+    public LexicalIndexLock(DataSource dataSource) throws SQLException {
+        this.connection = dataSource.getConnection();
+        try {
+            if (!advisoryLock("select pg_try_advisory_lock(?)")) {
+                throw new IllegalStateException(
+                        "Another AI-SERVICE instance owns the lexical index: only one instance may run");
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        log.info("Lexical index lock acquired");
+    }
+
+    /**
+     * Unlocked explicitly: the pool keeps the session open after close()
+     */
+    @PreDestroy
+    void release() throws SQLException {
+        try {
+            advisoryLock("select pg_advisory_unlock(?)");
+        } finally {
+            connection.close();
+        }
+    }
+
+    private boolean advisoryLock(String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, LOCK_ID);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.entity.ChatMemoryMessage;
+import com.example.aiservice.repository.ChatMemoryMessageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Chat memory store bounded in size and idle time
+ * Conversations live in a Caffeine cache; new messages are queued and appended to
+ * PostgreSQL in the background (write-behind). The queue is separate from the cache, so
+ * an eviction never drops a message, and a conversation evicted or served by another
+ * replica is reloaded from PostgreSQL plus its queued messages
+ * Rows are only appended: replicas sharing a conversation never overwrite each other's
+ * messages, a replica's cached window just misses the other's until it expires
+ * Rows older than the memory window are pruned after each append, and conversations
+ * without a new message for ai.chat-memory.retention are deleted
+ */
+@Component
+@Slf4j
+public class PersistentChatMemoryStore implements ChatMemoryStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ChatMemoryMessageRepository messageRepository;
+    private final Cache<String, List<ChatMessage>> conversations;
+    private final int maxMessages;
+    private final Duration retention;
+
+    // Messages not appended to PostgreSQL yet, per conversation, in order. Only changed
+    // through per-key atomic operations, in memory
+    private final ConcurrentHashMap<String, List<ChatMessage>> pending = new ConcurrentHashMap<>();
+
+    // Serialize load, flush and delete of a conversation. The database calls run under
+    // these locks, never inside a map's atomic operation, which would block other keys
+    private final ReentrantLock[] locks = IntStream.range(0, LOCK_STRIPES)
+            .mapToObj(i -> new ReentrantLock())
+            .toArray(ReentrantLock[]::new);
+
+    public PersistentChatMemoryStore(ChatMemoryMessageRepository messageRepository,
+            MeterRegistry meterRegistry,
+            @Value("${ai.chat-memory.max-conversations}") long maxConversations,
+            @Value("${ai.chat-memory.idle-timeout}") Duration idleTimeout,
+            @Value("${ai.chat-memory.max-messages}") int maxMessages,
+            @Value("${ai.chat-memory.retention}") Duration retention) {
+        this.messageRepository = messageRepository;
+        this.maxMessages = maxMessages;
+        this.retention = retention;
+        this.conversations = Caffeine.newBuilder()
+                .maximumSize(maxConversations)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+
+        // Hit/miss/eviction counters, plus the number of live conversations
+        CaffeineCacheMetrics.monitor(meterRegistry, conversations, "chatMemory");
+        Gauge.builder("ai.chat.memory.conversations", conversations, Cache::estimatedSize)
+                .description("Conversations currently held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        String id = memoryId.toString();
+        List<ChatMessage> cached = conversations.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        List<ChatMessage> loaded = load(id);
+        // A message added while loading cached the conversation first: that list wins
+        List<ChatMessage> current = conversations.asMap().putIfAbsent(id, loaded);
+        return current != null ? current : loaded;
+    }
+
+    /**
+     * MessageWindowChatMemory adds one message at a time, at the end of the list: that
+     * message is queued, unless it is already known (the window only dropped its oldest ones)
+     */
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        conversations.asMap().compute(memoryId.toString(), (id, cached) -> {
+            if (!messages.isEmpty()) {
+                ChatMessage added = messages.get(messages.size() - 1);
+                if (cached == null || cached.stream().noneMatch(message -> message == added)) {
+                    pending.compute(id, (key, queued) -> {
+                        List<ChatMessage> queue = queued != null ? queued : new ArrayList<>();
+                        queue.add(added);
+                        return queue;
+                    });
+                }
+            }
+            return new ArrayList<>(messages);
+        });
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        String id = memoryId.toString();
+        ReentrantLock lock = lockOf(id);
+        lock.lock();
+        try {
+            pending.remove(id);
+            messageRepository.deleteByConversationId(id);
+        } finally {
+            lock.unlock();
+        }
+        conversations.invalidate(id);
+    }
+
+    @Scheduled(fixedDelayString = "${ai.chat-memory.flush-interval-ms}")
+    public void flush() {
+        for (String id : pending.keySet()) {
+            // The insert runs under the conversation's lock: a reload cannot see the messages
+            // neither in the queue nor in the table
+            ReentrantLock lock = lockOf(id);
+            lock.lock();
+            try {
+                List<ChatMessage> queued = pending.remove(id);
+                if (queued == null) {
+                    continue;
+                }
+                if (append(id, queued)) {
+                    pruneWindow(id);
+                } else {
+                    // Kept for the next flush, ahead of the messages queued meanwhile
+                    pending.merge(id, queued, (newer, failed) -> {
+                        List<ChatMessage> queue = new ArrayList<>(failed);
+                        queue.addAll(newer);
+                        return queue;
+                    });
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ai.chat-memory.prune-interval-ms}")
+    public void pruneIdleConversations() {
+        int deleted = messageRepository.deleteIdleConversations(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Chat memory: {} messages of conversations idle for {} deleted", deleted, retention);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private List<ChatMessage> load(String id) {
+        List<ChatMessage> messages = new ArrayList<>();
+        ReentrantLock lock = lockOf(id);
+        lock.lock();
+        try {
+            List<ChatMemoryMessage> rows = messageRepository.findByConversationIdOrderByIdDesc(
+                    id, PageRequest.of(0, maxMessages));
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                messages.add(ChatMessageDeserializer.messageFromJson(rows.get(i).getMessageJson()));
+            }
+            // Copied atomically: updateMessages appends to the queue in place
+            pending.computeIfPresent(id, (key, queued) -> {
+                messages.addAll(queued);
+                return queued;
+            });
+        } finally {
+            lock.unlock();
+        }
+
+        // The log keeps every persona switch: only the latest system message is current
+        int lastSystem = -1;
+        for (int i = 0; i < messages.size(); i++) {
+            if (messages.get(i) instanceof SystemMessage) {
+                lastSystem = i;
+            }
+        }
+        List<ChatMessage> window = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            if (!(messages.get(i) instanceof SystemMessage) || i == lastSystem) {
+                window.add(messages.get(i));
+            }
+        }
+        return window;
+    }
+
+    private boolean append(String id, List<ChatMessage> messages) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            messageRepository.saveAll(messages.stream()
+                    .map(message -> ChatMemoryMessage.builder()
+                            .conversationId(id)
+                            .messageJson(ChatMessageSerializer.messageToJson(message))
+                            .createdAt(now)
+                            .build())
+                    .toList());
+            return true;
+        } catch (Exception e) {
+            // Kept in the queue for the next flush
+            log.error("Failed to persist chat memory of conversation {}", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Best effort: rows left over are pruned after the next append
+     */
+    private void pruneWindow(String id) {
+        try {
+            messageRepository.deleteBeyondWindow(id, maxMessages);
+        } catch (Exception e) {
+            log.warn("Failed to prune chat memory of conversation {}", id, e);
+        }
+    }
+
+    private ReentrantLock lockOf(String id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+}
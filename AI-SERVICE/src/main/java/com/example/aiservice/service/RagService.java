@@ -2,27 +2,42 @@ package com.example.aiservice.service;
 
 import com.example.aiservice.dto.ChatRequest;
 import com.example.aiservice.dto.ChatResponse;
+import com.example.aiservice.dto.ConversationKey;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.memory.ChatMemory;
 import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.injector.ContentInjector;
+import dev.langchain4j.rag.content.injector.DefaultContentInjector;
 import dev.langchain4j.rag.content.retriever.ContentRetriever;
-import dev.langchain4j.rag.content.retriever.EmbeddingStoreContentRetriever;
-import dev.langchain4j.service.AiServices;
-import dev.langchain4j.service.MemoryId;
-import dev.langchain4j.service.SystemMessage;
-import dev.langchain4j.service.UserMessage;
-import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.rag.query.Metadata;
+import dev.langchain4j.rag.query.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 /**
  * Service for RAG-based chat functionality
  * Retrieves relevant document chunks and generates contextual answers
+ *
+ * Chat memory is read from and written to the shared, bounded store for each request
+ * (see PersistentChatMemoryStore); nothing is kept here per conversation. Analyses
+ * requested by other services are stateless: no memory, no stored conversation
  */
 @Service
 @RequiredArgsConstructor
@@ -30,10 +45,16 @@ import java.util.UUID;
 public class RagService {
 
     private final ChatLanguageModel chatModel;
-    private final EmbeddingStore<TextSegment> embeddingStore;
-    private final EmbeddingModel embeddingModel;
+    private final StreamingChatLanguageModel streamingChatModel;
+    private final ContentRetriever contentRetriever;
     private final ChatMemoryProvider chatMemoryProvider;
 
+    // Stateless: appends the retrieved segments to the user message
+    private final ContentInjector contentInjector = new DefaultContentInjector();
+
+    @Value("${ai.chat.stream-timeout-ms}")
+    private long streamTimeoutMs;
+
     /**
      * Process a chat query using RAG
      */
@@ -41,47 +62,36 @@ public class RagService {
         log.info("Processing chat query: {} | Role: {} | contextId: {} | conversationId: {}",
                 request.query(), request.userRole(), request.contextId(), request.conversationId());
 
-        try {
-            // 1. Create content retriever for RAG
-            // Optimized: higher minScore and lower maxResults to avoid irrelevant context
-            // for greetings
-            ContentRetriever retriever = EmbeddingStoreContentRetriever.builder()
-                    .embeddingStore(embeddingStore)
-                    .embeddingModel(embeddingModel)
-                    .maxResults(3)
-                    .minScore(0.6)
-                    .build();
-
-            // 2. Build AI Service with RAG
-            Assistant assistant = AiServices.builder(Assistant.class)
-                    .chatLanguageModel(chatModel)
-                    .chatMemoryProvider(chatMemoryProvider)
-                    .contentRetriever(retriever)
-                    .build();
-
-            // 3. Prepare query with context if available
-            String query = request.query();
-            if (request.contextId() != null) {
-                query = "[Context ID: " + request.contextId() + "] " + query;
-            }
+        // 1. Resolve memory ID (consistent for the same conversation)
+        // The contextId travels with it and scopes the retrieval to the tender/submission
+        String conversationId = resolveConversationId(request);
+        return answer(request, new ConversationKey(conversationId, request.contextId()), true);
+    }
 
-            // 4. Resolve memory ID (consistent for the same conversation)
-            String conversationId = request.conversationId() != null
-                    ? request.conversationId()
-                    : UUID.randomUUID().toString();
+    /**
+     * One-shot question about a tender or submission (e.g. the analysis of a new submission):
+     * answered like a chat message, without memory
+     */
+    public ChatResponse analyze(ChatRequest request) {
+        log.info("Processing analysis query: {} | Role: {} | contextId: {}",
+                request.query(), request.userRole(), request.contextId());
 
-            // 5. Get answer using the appropriate persona
-            String role = (request.userRole() != null) ? request.userRole().toUpperCase() : "";
-            String answer = switch (role) {
-                case "SUPPLIER" -> assistant.chatWithSupplier(conversationId, query);
-                case "OWNER" -> assistant.chatWithOwner(conversationId, query);
-                case "ADMIN" -> assistant.chatWithAdmin(conversationId, query);
-                default -> assistant.chatDefault(conversationId, query);
-            };
+        return answer(request, new ConversationKey(null, request.contextId()), false);
+    }
+
+    private ChatResponse answer(ChatRequest request, ConversationKey memoryId, boolean withMemory) {
+        try {
+            // 2. Get answer using the appropriate persona
+            ChatMemory memory = withMemory ? chatMemoryProvider.get(memoryId) : null;
+            Prompt prompt = prompt(request, memoryId, memory);
+            AiMessage answer = chatModel.generate(prompt.messages()).content();
+            if (memory != null) {
+                memory.add(answer);
+            }
 
             log.info("Chat response generated successfully for role: {}", request.userRole());
 
-            return new ChatResponse(answer, List.of(), conversationId);
+            return new ChatResponse(answer.text(), List.of(), memoryId.conversationId());
 
         } catch (Exception e) {
             log.error("Chat processing failed", e);
@@ -93,33 +103,140 @@ public class RagService {
     }
 
     /**
-     * AI Assistant interface for LangChain4j
-     * Separate methods with fixed SystemMessage avoid dynamic template compilation
-     * issues
+     * Stream a chat answer as Server-Sent Events
+     * Frames: "sources" (document references, once retrieval is done), "token" (one per
+     * generated token), then "done" (full ChatResponse with the conversationId) or "error"
+     */
+    public SseEmitter chatStream(ChatRequest request) {
+        log.info("Processing streaming chat query: {} | Role: {} | contextId: {} | conversationId: {}",
+                request.query(), request.userRole(), request.contextId(), request.conversationId());
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String conversationId = resolveConversationId(request);
+        ConversationKey memoryId = new ConversationKey(conversationId, request.contextId());
+
+        try {
+            ChatMemory memory = chatMemoryProvider.get(memoryId);
+            Prompt prompt = prompt(request, memoryId, memory);
+            send(emitter, "sources", prompt.sources());
+
+            // Callbacks run on the model client's threads: the request thread is already released
+            streamingChatModel.generate(prompt.messages(), new StreamingResponseHandler<AiMessage>() {
+                @Override
+                public void onNext(String token) {
+                    send(emitter, "token", token);
+                }
+
+                @Override
+                public void onComplete(Response<AiMessage> response) {
+                    memory.add(response.content());
+                    send(emitter, "done", new ChatResponse(response.content().text(), prompt.sources(), conversationId));
+                    emitter.complete();
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    log.error("Streaming chat failed", error);
+                    send(emitter, "error", new ChatResponse(
+                            "Sorry, I encountered an error processing your question: " + error.getMessage(),
+                            prompt.sources(),
+                            conversationId));
+                    emitter.complete();
+                }
+            });
+
+        } catch (Exception e) {
+            log.error("Streaming chat processing failed", e);
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * Messages sent to the model, and the references of the retrieved segments
+     */
+    private record Prompt(List<ChatMessage> messages, List<String> sources) {
+    }
+
+    /**
+     * Persona system message, history, then the user message augmented with the segments
+     * retrieved for the context; the system and user messages are added to the memory, if any
      */
-    interface Assistant {
-        @SystemMessage("You are an expert Bidding Consultant for BidConnect. " +
-                "Your goal is to help suppliers understand tender requirements and optimize submissions. " +
-                "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as a Bidding Consultant. "
-                +
-                "Only use retrieved context if it directly relates to the user's specific question about a tender.")
-        String chatWithSupplier(@MemoryId String memoryId, @UserMessage String userMessage);
-
-        @SystemMessage("You are an expert Tender Evaluator for BidConnect. " +
-                "Your goal is to help project owners evaluate submissions and ensure compliance. " +
-                "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as a Tender Evaluator. "
-                +
-                "Only use retrieved context if it directly relates to the user's specific question about an evaluation.")
-        String chatWithOwner(@MemoryId String memoryId, @UserMessage String userMessage);
-
-        @SystemMessage("You are a Platform Support Specialist for BidConnect. " +
-                "Your goal is to help administrators manage the platform. " +
-                "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as Platform Support. " +
-                "Only use retrieved context if it relates to technical or system questions.")
-        String chatWithAdmin(@MemoryId String memoryId, @UserMessage String userMessage);
-
-        @SystemMessage("You are a helpful assistant for the BidConnect platform. " +
-                "If you don't know the user's specific role, be polite and offer general help.")
-        String chatDefault(@MemoryId String memoryId, @UserMessage String userMessage);
+    private Prompt prompt(ChatRequest request, ConversationKey memoryId, ChatMemory memory) {
+        UserMessage userMessage = UserMessage.from(request.query());
+        List<ChatMessage> history = memory != null ? memory.messages() : List.of();
+        List<Content> contents = contentRetriever.retrieve(
+                Query.from(request.query(), Metadata.from(userMessage, memoryId, history)));
+        ChatMessage augmented = contentInjector.inject(contents, userMessage);
+        SystemMessage systemMessage = SystemMessage.from(systemPrompt(request));
+
+        List<ChatMessage> messages;
+        if (memory != null) {
+            memory.add(systemMessage);
+            memory.add(augmented);
+            messages = memory.messages();
+        } else {
+            messages = List.of(systemMessage, augmented);
+        }
+
+        List<String> sources = new ArrayList<>(contents.size());
+        contents.forEach(content -> sources.add(sourceOf(content)));
+        return new Prompt(messages, sources);
+    }
+
+    private String resolveConversationId(ChatRequest request) {
+        return request.conversationId() != null
+                ? request.conversationId()
+                : UUID.randomUUID().toString();
     }
+
+    private String systemPrompt(ChatRequest request) {
+        String role = (request.userRole() != null) ? request.userRole().toUpperCase() : "";
+        return switch (role) {
+            case "SUPPLIER" -> SUPPLIER_PROMPT;
+            case "OWNER" -> OWNER_PROMPT;
+            case "ADMIN" -> ADMIN_PROMPT;
+            default -> DEFAULT_PROMPT;
+        };
+    }
+
+    private String sourceOf(Content content) {
+        TextSegment segment = content.textSegment();
+        String documentId = segment.metadata().getString(SegmentMetadata.DOCUMENT_ID);
+        if (documentId != null) {
+            return documentId;
+        }
+        String text = segment.text();
+        return text.length() > 100 ? text.substring(0, 100) + "..." : text;
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away: nothing more to do, generation ends on its own
+            log.debug("Could not send '{}' frame: {}", event, e.getMessage());
+        }
+    }
+
+    // Persona prompts, shared by the blocking and the streaming chats
+    private static final String SUPPLIER_PROMPT = "You are an expert Bidding Consultant for BidConnect. " +
+            "Your goal is to help suppliers understand tender requirements and optimize submissions. " +
+            "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as a Bidding Consultant. "
+            +
+            "Only use retrieved context if it directly relates to the user's specific question about a tender.";
+
+    private static final String OWNER_PROMPT = "You are an expert Tender Evaluator for BidConnect. " +
+            "Your goal is to help project owners evaluate submissions and ensure compliance. " +
+            "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as a Tender Evaluator. "
+            +
+            "Only use retrieved context if it directly relates to the user's specific question about an evaluation.";
+
+    private static final String ADMIN_PROMPT = "You are a Platform Support Specialist for BidConnect. " +
+            "Your goal is to help administrators manage the platform. " +
+            "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as Platform Support. " +
+            "Only use retrieved context if it relates to technical or system questions.";
+
+    private static final String DEFAULT_PROMPT = "You are a helpful assistant for the BidConnect platform. " +
+            "If you don't know the user's specific role, be polite and offer general help.";
 }
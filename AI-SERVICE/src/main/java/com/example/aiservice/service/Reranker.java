@@ -0,0 +1,107 @@
+package com.example.aiservice.service;
+
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.scoring.ScoringModel;
+import dev.langchain4j.rag.content.Content;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+/**
+ * Re-scores retrieval candidates with an in-process cross-encoder and keeps the best ones
+ * Scoring has a latency budget: when it is exceeded, or the scoring pool is full, the
+ * candidates are kept in their fused (RRF) order instead
+ */
+@Component
+@ConditionalOnProperty(name = "ai.retrieval.rerank.enabled", havingValue = "true")
+@Slf4j
+public class Reranker {
+
+    private final ScoringModel scoringModel;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timer scoringTimer;
+    private final Counter timeouts;
+    private final Counter rejections;
+    private final Counter failures;
+
+    @Value("${ai.retrieval.rerank.candidates}")
+    private int candidates;
+
+    @Value("${ai.retrieval.rerank.budget-ms}")
+    private long budgetMs;
+
+    public Reranker(ScoringModel scoringModel,
+            @Qualifier("rerankingExecutor") ThreadPoolTaskExecutor executor,
+            MeterRegistry meterRegistry) {
+        this.scoringModel = scoringModel;
+        this.executor = executor;
+        this.scoringTimer = meterRegistry.timer("ai.retrieval.rerank");
+        this.timeouts = meterRegistry.counter("ai.retrieval.rerank.bypassed", "reason", "timeout");
+        this.rejections = meterRegistry.counter("ai.retrieval.rerank.bypassed", "reason", "overloaded");
+        this.failures = meterRegistry.counter("ai.retrieval.rerank.bypassed", "reason", "error");
+    }
+
+    /**
+     * Number of candidates to retrieve before re-ranking
+     */
+    public int candidates() {
+        return candidates;
+    }
+
+    public List<Content> rerank(String query, List<Content> candidates, int maxResults) {
+        List<Content> fallback = candidates.subList(0, Math.min(maxResults, candidates.size()));
+        if (candidates.size() <= maxResults) {
+            return fallback;
+        }
+
+        List<TextSegment> segments = candidates.stream().map(Content::textSegment).toList();
+        Future<List<Double>> scoring;
+        try {
+            scoring = executor.submit(() -> scoringTimer.record(() -> scoringModel.scoreAll(segments, query).content()));
+        } catch (TaskRejectedException e) {
+            rejections.increment();
+            return fallback;
+        }
+
+        List<Double> scores;
+        try {
+            scores = scoring.get(budgetMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The ONNX session does not stop on interrupt: the late result is dropped, and the
+            // bounded pool limits how much such work can pile up
+            scoring.cancel(true);
+            timeouts.increment();
+            log.debug("Re-ranking skipped, over the {} ms budget", budgetMs);
+            return fallback;
+        } catch (ExecutionException e) {
+            failures.increment();
+            log.warn("Re-ranking failed, keeping the fused order", e.getCause());
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fallback;
+        }
+
+        return IntStream.range(0, candidates.size())
+                .boxed()
+                .sorted(Comparator.comparing(scores::get, Comparator.reverseOrder()))
+                .limit(maxResults)
+                .map(candidates::get)
+                .toList();
+    }
+}
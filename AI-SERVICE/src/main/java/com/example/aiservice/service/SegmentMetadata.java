@@ -0,0 +1,41 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.dto.IngestionRequest;
+import dev.langchain4j.data.document.Metadata;
+
+import java.util.List;
+
+/**
+ * Metadata keys attached to every ingested segment (stored as Qdrant payload)
+ */
+public final class SegmentMetadata {
+
+    public static final String DOCUMENT_ID = "document_id";
+    public static final String TENDER_ID = "tender_id";
+    public static final String SUBMISSION_ID = "submission_id";
+    public static final String OWNER_TYPE = "owner_type"; // TENDER or SUBMISSION
+
+    public static final String OWNER_TENDER = "TENDER";
+    public static final String OWNER_SUBMISSION = "SUBMISSION";
+
+    public static final List<String> INDEXED_FIELDS = List.of(DOCUMENT_ID, TENDER_ID, SUBMISSION_ID, OWNER_TYPE);
+
+    private SegmentMetadata() {
+    }
+
+    /**
+     * Tag a document before splitting; the splitter copies its metadata to every segment
+     */
+    public static void tag(Metadata metadata, IngestionRequest request) {
+        metadata.put(DOCUMENT_ID, request.documentId());
+        if (request.tenderId() != null) {
+            metadata.put(TENDER_ID, request.tenderId());
+        }
+        if (request.submissionId() != null) {
+            metadata.put(SUBMISSION_ID, request.submissionId());
+            metadata.put(OWNER_TYPE, OWNER_SUBMISSION);
+        } else if (request.tenderId() != null) {
+            metadata.put(OWNER_TYPE, OWNER_TENDER);
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.aiservice.store;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.IsEqualTo;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.lucene99.Lucene99Codec;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process approximate nearest neighbour store: Lucene HNSW graph over memory-mapped
+ * (off-heap) vector files
+ * Writes are visible to searches at once (near-real-time reader); they are snapshotted to
+ * disk by a periodic commit and on close, so a crash loses at most one interval of writes
+ * Lets AI-SERVICE run and be load-tested without Qdrant (profile "local-vector")
+ * Scores use the same scale as Qdrant through LangChain4j: (1 + cosine) / 2
+ */
+@Slf4j
+public class LuceneHnswEmbeddingStore implements EmbeddingStore<TextSegment>, MetadataValueScanner, Closeable {
+
+    // Reserved field names; metadata keys are stored as they are
+    private static final String ID = "_id";
+    private static final String VECTOR = "_vector";
+    private static final String VECTOR_STORED = "_vector_stored";
+    private static final String TEXT = "_text";
+
+    // OpenAI embeddings (1536) exceed Lucene's default limit of 1024 dimensions
+    private static final int MAX_DIMENSIONS = 4096;
+
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ScheduledExecutorService committer;
+
+    public LuceneHnswEmbeddingStore(Path indexPath, int maxConnections, int beamWidth, long commitIntervalMs)
+            throws IOException {
+        KnnVectorsFormat hnsw = new HighDimensionHnswFormat(new Lucene99HnswVectorsFormat(maxConnections, beamWidth));
+        IndexWriterConfig config = new IndexWriterConfig()
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setCodec(new Lucene99Codec() {
+                    @Override
+                    public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                        return hnsw;
+                    }
+                });
+        this.directory = FSDirectory.open(indexPath);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vector-store-commit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitQuietly, commitIntervalMs, commitIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Local HNSW vector store opened at {} ({} vectors)", indexPath, writer.getDocStats().numDocs);
+    }
+
+    @Override
+    public String add(Embedding embedding) {
+        String id = UUID.randomUUID().toString();
+        add(id, embedding);
+        return id;
+    }
+
+    @Override
+    public void add(String id, Embedding embedding) {
+        write(List.of(id), List.of(embedding), null);
+    }
+
+    @Override
+    public String add(Embedding embedding, TextSegment textSegment) {
+        String id = UUID.randomUUID().toString();
+        write(List.of(id), List.of(embedding), List.of(textSegment));
+        return id;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings) {
+        List<String> ids = randomIds(embeddings.size());
+        write(ids, embeddings, null);
+        return ids;
+    }
+
+    @Override
+    public List<String> addAll(List<Embedding> embeddings, List<TextSegment> embedded) {
+        List<String> ids = randomIds(embeddings.size());
+        write(ids, embeddings, embedded);
+        return ids;
+    }
+
+    @Override
+    public EmbeddingSearchResult<TextSegment> search(EmbeddingSearchRequest request) {
+        Query filter = request.filter() != null ? toQuery(request.filter()) : null;
+        Query query = new KnnFloatVectorQuery(VECTOR, request.queryEmbedding().vector(), request.maxResults(), filter);
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            StoredFields storedFields = searcher.storedFields();
+            List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
+            for (ScoreDoc scoreDoc : searcher.search(query, request.maxResults()).scoreDocs) {
+                if (scoreDoc.score < request.minScore()) {
+                    continue;
+                }
+                Document doc = storedFields.document(scoreDoc.doc);
+                matches.add(new EmbeddingMatch<>((double) scoreDoc.score, doc.get(ID),
+                        Embedding.from(toFloats(doc.getBinaryValue(VECTOR_STORED))), toSegment(doc)));
+            }
+            return new EmbeddingSearchResult<>(matches);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Vector search failed", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    /**
+     * Walks the terms of the metadata field in order, skipping those left only by deleted vectors
+     * The cursor is the last value returned
+     */
+    @Override
+    public Page distinctValues(String key, String cursor, int limit) {
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            IndexReader reader = searcher.getIndexReader();
+            Set<String> values = new LinkedHashSet<>();
+            Terms terms = MultiTerms.getTerms(reader, key);
+            if (terms == null) {
+                return new Page(values, null);
+            }
+
+            TermsEnum termsEnum = terms.iterator();
+            BytesRef term;
+            if (cursor == null) {
+                term = termsEnum.next();
+            } else {
+                TermsEnum.SeekStatus status = termsEnum.seekCeil(new BytesRef(cursor));
+                term = switch (status) {
+                    case END -> null;
+                    case FOUND -> termsEnum.next();
+                    case NOT_FOUND -> termsEnum.term();
+                };
+            }
+            Bits liveDocs = MultiBits.getLiveDocs(reader);
+            PostingsEnum postings = null;
+            String last = null;
+            while (term != null && values.size() < limit) {
+                postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                if (hasLiveDoc(postings, liveDocs)) {
+                    last = term.utf8ToString();
+                    values.add(last);
+                }
+                term = termsEnum.next();
+            }
+            return new Page(values, term == null ? null : last);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list the values of " + key, e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    private static boolean hasLiveDoc(PostingsEnum postings, Bits liveDocs) throws IOException {
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+            if (liveDocs == null || liveDocs.get(doc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void removeAll(Collection<String> ids) {
+        try {
+            writer.deleteDocuments(ids.stream().map(id -> new Term(ID, id)).toArray(Term[]::new));
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove vectors", e);
+        }
+    }
+
+    @Override
+    public void removeAll(Filter filter) {
+        try {
+            writer.deleteDocuments(toQuery(filter));
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove vectors", e);
+        }
+    }
+
+    @Override
+    public void removeAll() {
+        try {
+            writer.deleteAll();
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove vectors", e);
+        }
+    }
+
+    /**
+     * Snapshot the writes so far to disk
+     */
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Not interrupted: an interrupt during a Lucene write closes its file channels
+        committer.shutdown();
+        try {
+            committer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void write(List<String> ids, List<Embedding> embeddings, List<TextSegment> segments) {
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                float[] vector = embeddings.get(i).vector();
+                Document doc = new Document();
+                doc.add(new StringField(ID, ids.get(i), Field.Store.YES));
+                doc.add(new KnnFloatVectorField(VECTOR, vector, VectorSimilarityFunction.COSINE));
+                doc.add(new StoredField(VECTOR_STORED, new BytesRef(toBytes(vector))));
+                if (segments != null) {
+                    TextSegment segment = segments.get(i);
+                    doc.add(new StoredField(TEXT, segment.text()));
+                    segment.metadata().toMap().forEach((key, value) ->
+                            doc.add(new StringField(key, String.valueOf(value), Field.Store.YES)));
+                }
+                writer.updateDocument(new Term(ID, ids.get(i)), doc);
+            }
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store vectors", e);
+        }
+    }
+
+    // Near-real-time: the searcher sees the writer's changes without a commit
+    private void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    private void commitQuietly() {
+        try {
+            commit();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to commit the local vector store", e);
+        }
+    }
+
+    private TextSegment toSegment(Document doc) {
+        String text = doc.get(TEXT);
+        if (text == null) {
+            return null;
+        }
+        Map<String, Object> metadata = new HashMap<>();
+        for (IndexableField field : doc.getFields()) {
+            if (!field.name().startsWith("_")) {
+                metadata.put(field.name(), field.stringValue());
+            }
+        }
+        return TextSegment.from(text, Metadata.from(metadata));
+    }
+
+    /**
+     * Translate the metadata filters used by the retrievers (equality, and, or, not)
+     */
+    private static Query toQuery(Filter filter) {
+        if (filter instanceof IsEqualTo isEqualTo) {
+            return new TermQuery(new Term(isEqualTo.key(), String.valueOf(isEqualTo.comparisonValue())));
+        }
+        if (filter instanceof And and) {
+            return new BooleanQuery.Builder()
+                    .add(toQuery(and.left()), BooleanClause.Occur.FILTER)
+                    .add(toQuery(and.right()), BooleanClause.Occur.FILTER)
+                    .build();
+        }
+        if (filter instanceof Or or) {
+            return new BooleanQuery.Builder()
+                    .add(toQuery(or.left()), BooleanClause.Occur.SHOULD)
+                    .add(toQuery(or.right()), BooleanClause.Occur.SHOULD)
+                    .setMinimumNumberShouldMatch(1)
+                    .build();
+        }
+        if (filter instanceof Not not) {
+            return new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.FILTER)
+                    .add(toQuery(not.expression()), BooleanClause.Occur.MUST_NOT)
+                    .build();
+        }
+        throw new UnsupportedOperationException("Unsupported filter: " + filter.getClass().getSimpleName());
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher != null) {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Failed to release vector searcher", e);
+            }
+        }
+    }
+
+    private static List<String> randomIds(int count) {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        return ids;
+    }
+
+    private static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] toFloats(BytesRef bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    /**
+     * Lucene99 HNSW format with a higher dimension limit
+     * Written under the delegate's name, so the index is read back by the standard format
+     */
+    private static final class HighDimensionHnswFormat extends KnnVectorsFormat {
+
+        private final KnnVectorsFormat delegate;
+
+        HighDimensionHnswFormat(KnnVectorsFormat delegate) {
+            super(delegate.getName());
+            this.delegate = delegate;
+        }
+
+        @Override
+        public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+            return delegate.fieldsWriter(state);
+        }
+
+        @Override
+        public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+            return delegate.fieldsReader(state);
+        }
+
+        @Override
+        public int getMaxDimensions(String fieldName) {
+            return MAX_DIMENSIONS;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.aiservice.store;
+
+import java.util.Set;
+
+/**
+ * Lists the distinct values of a metadata key over all the stored vectors, page by page
+ * Used to find vectors no database row accounts for (see DocumentCleanupService)
+ */
+public interface MetadataValueScanner {
+
+    /**
+     * @param cursor null for the first page, then the cursor of the previous page
+     * @param limit  indicative page size; a value may be listed again on a later page
+     */
+    Page distinctValues(String key, String cursor, int limit);
+
+    /**
+     * @param next null on the last page
+     */
+    record Page(Set<String> values, String next) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.aiservice.store;
+
+import io.qdrant.client.PointIdFactory;
+import io.qdrant.client.QdrantClient;
+import io.qdrant.client.WithPayloadSelectorFactory;
+import io.qdrant.client.WithVectorsSelectorFactory;
+import io.qdrant.client.grpc.JsonWithInt;
+import io.qdrant.client.grpc.Points;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Scrolls the collection with only the requested payload key (no vectors)
+ * Qdrant has no distinct query: values are deduplicated within a page of points,
+ * so a value spanning several pages is listed on each of them
+ */
+public class QdrantMetadataValueScanner implements MetadataValueScanner {
+
+    private final QdrantClient client;
+    private final String collectionName;
+
+    public QdrantMetadataValueScanner(QdrantClient client, String collectionName) {
+        this.client = client;
+        this.collectionName = collectionName;
+    }
+
+    @Override
+    public Page distinctValues(String key, String cursor, int limit) {
+        Points.ScrollPoints.Builder request = Points.ScrollPoints.newBuilder()
+                .setCollectionName(collectionName)
+                .setLimit(limit)
+                .setWithPayload(WithPayloadSelectorFactory.include(List.of(key)))
+                .setWithVectors(WithVectorsSelectorFactory.enable(false));
+        if (cursor != null) {
+            request.setOffset(toPointId(cursor));
+        }
+
+        Points.ScrollResponse response;
+        try {
+            response = client.scrollAsync(request.build()).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to scroll collection '" + collectionName + "'", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scrolling collection '" + collectionName + "'", e);
+        }
+
+        Set<String> values = new LinkedHashSet<>();
+        for (Points.RetrievedPoint point : response.getResultList()) {
+            JsonWithInt.Value value = point.getPayloadMap().get(key);
+            if (value != null && value.hasStringValue()) {
+                values.add(value.getStringValue());
+            }
+        }
+        return new Page(values, response.hasNextPageOffset() ? toCursor(response.getNextPageOffset()) : null);
+    }
+
+    // LangChain4j stores UUID point ids; numeric ids are handled for collections filled otherwise
+    private static Points.PointId toPointId(String cursor) {
+        return cursor.startsWith("#")
+                ? PointIdFactory.id(Long.parseLong(cursor.substring(1)))
+                : PointIdFactory.id(UUID.fromString(cursor));
+    }
+
+    private static String toCursor(Points.PointId id) {
+        return id.hasUuid() ? id.getUuid() : "#" + id.getNum();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.entity.DocumentChunk;
+import com.example.aiservice.repository.DocumentChunkRepository;
+import dev.langchain4j.data.segment.TextSegment;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChunkManifestTest {
+
+    private static final String DOCUMENT = "doc-1";
+
+    private DocumentChunkRepository repository;
+    private ChunkManifest manifest;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DocumentChunkRepository.class);
+        manifest = new ChunkManifest(repository, "text-embedding-3-small");
+    }
+
+    @Test
+    void firstVersionEmbedsEverything() {
+        when(repository.findByDocumentIdOrderByChunkIndex(DOCUMENT)).thenReturn(List.of());
+
+        ChunkManifest.Diff diff = manifest.diff(DOCUMENT, segments("a", "b"));
+
+        assertThat(diff.isFirstVersion()).isTrue();
+        assertThat(diff.added()).containsExactly(0, 1);
+        assertThat(diff.removedIds()).isEmpty();
+    }
+
+    @Test
+    void unchangedChunksKeepTheirVectorsWhenReordered() {
+        previousVersion("a", "b", "c");
+
+        ChunkManifest.Diff diff = manifest.diff(DOCUMENT, segments("c", "a", "b"));
+
+        assertThat(diff.isFirstVersion()).isFalse();
+        assertThat(diff.vectorIds()).containsExactly("v-c", "v-a", "v-b");
+        assertThat(diff.added()).isEmpty();
+        assertThat(diff.removedIds()).isEmpty();
+    }
+
+    @Test
+    void whitespaceChangesDoNotCountAsEdits() {
+        previousVersion("Lot 3 :  menuiseries\n extérieures");
+
+        ChunkManifest.Diff diff = manifest.diff(DOCUMENT, segments(" Lot 3 : menuiseries extérieures "));
+
+        assertThat(diff.vectorIds()).containsExactly("v-Lot 3 :  menuiseries\n extérieures");
+    }
+
+    @Test
+    void editedAndRemovedChunks() {
+        previousVersion("a", "b", "c");
+
+        ChunkManifest.Diff diff = manifest.diff(DOCUMENT, segments("a", "b2"));
+
+        assertThat(diff.vectorIds()).containsExactly("v-a", null);
+        assertThat(diff.added()).containsExactly(1);
+        assertThat(diff.removedIds()).containsExactlyInAnyOrder("v-b", "v-c");
+    }
+
+    @Test
+    void duplicateChunksReuseAsManyVectorsAsTheyHad() {
+        previousVersion("header", "a", "header");
+
+        ChunkManifest.Diff diff = manifest.diff(DOCUMENT, segments("header", "header", "header", "a"));
+
+        assertThat(diff.vectorIds()).containsExactly("v-header#0", "v-header#2", null, "v-a");
+        assertThat(diff.added()).containsExactly(2);
+        assertThat(diff.removedIds()).isEmpty();
+    }
+
+    @Test
+    void fewerDuplicatesRemoveTheExtraVectors() {
+        previousVersion("header", "header", "header");
+
+        ChunkManifest.Diff diff = manifest.diff(DOCUMENT, segments("header"));
+
+        assertThat(diff.vectorIds()).containsExactly("v-header#0");
+        assertThat(diff.removedIds()).containsExactly("v-header#1", "v-header#2");
+    }
+
+    @Test
+    void describeAlignsVectorIdsAndOffsets() {
+        List<DocumentChunk> chunks = manifest.describe(DOCUMENT, segments("first chunk", "second"),
+                List.of("v1", "v2"), Arrays.asList(0, null));
+
+        assertThat(chunks).extracting(DocumentChunk::getVectorId).containsExactly("v1", "v2");
+        assertThat(chunks).extracting(DocumentChunk::getChunkIndex).containsExactly(0, 1);
+        assertThat(chunks).extracting(DocumentChunk::getStartOffset).containsExactly(0, null);
+        assertThat(chunks).extracting(DocumentChunk::getLength).containsExactly(11, 6);
+        assertThat(chunks.get(1).getContentHash()).isEqualTo(ChunkManifest.contentHash("second"));
+        assertThat(chunks).allSatisfy(chunk -> assertThat(chunk.getTokenCount()).isPositive());
+    }
+
+    /**
+     * Stored manifest; vector ids are "v-" + text, suffixed with #position when the text repeats
+     */
+    private void previousVersion(String... texts) {
+        List<DocumentChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < texts.length; i++) {
+            String text = texts[i];
+            boolean repeated = Arrays.stream(texts).filter(text::equals).count() > 1;
+            chunks.add(DocumentChunk.builder()
+                    .vectorId("v-" + text + (repeated ? "#" + i : ""))
+                    .documentId(DOCUMENT)
+                    .chunkIndex(i)
+                    .contentHash(ChunkManifest.contentHash(text))
+                    .length(text.length())
+                    .tokenCount(1)
+                    .build());
+        }
+        when(repository.findByDocumentIdOrderByChunkIndex(DOCUMENT)).thenReturn(chunks);
+    }
+
+    private static List<TextSegment> segments(String... texts) {
+        return Arrays.stream(texts).map(TextSegment::from).toList();
+    }
+}
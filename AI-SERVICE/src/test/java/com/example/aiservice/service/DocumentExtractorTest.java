@@ -0,0 +1,138 @@
+package com.example.aiservice.service;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Page-range extraction of a generated 300-page PDF (the size of a bid package): same
+ * segments as a sequential extraction, plus a benchmark of the wall time and allocation of both
+ */
+@Slf4j
+class DocumentExtractorTest {
+
+    private static final int PAGES = 300;
+
+    @TempDir
+    static Path dir;
+
+    private static Path pdf;
+    private static ThreadPoolTaskExecutor executor;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        pdf = dir.resolve("bid-package.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= PAGES; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(12);
+                    content.newLineAtOffset(50, 750);
+                    content.showText("Page " + page);
+                    for (int line = 1; line <= 40; line++) {
+                        content.newLine();
+                        content.showText("Lot " + page + "." + line + " - fourniture et pose conformes au CCTP, article "
+                                + (page * 40 + line));
+                    }
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setMaxPoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setThreadNamePrefix("extraction-test-");
+        executor.initialize();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void parallelExtractionMatchesSequentialOne() throws IOException {
+        DocumentExtractor.Extraction sequential = extractor(1).extract(pdf, new Metadata());
+        DocumentExtractor.Extraction parallel = extractor(4).extract(pdf, new Metadata());
+
+        assertThat(parallel.segments()).extracting(TextSegment::text)
+                .containsExactlyElementsOf(sequential.segments().stream().map(TextSegment::text).toList());
+        assertThat(parallel.offsets()).isEqualTo(sequential.offsets());
+        assertThat(parallel.chars()).isEqualTo(sequential.chars());
+        assertThat(parallel.segments().get(0).text()).startsWith("Page 1");
+        assertThat(parallel.segments().get(parallel.segments().size() - 1).text()).contains("article " + (PAGES * 40 + 40));
+        assertThat(parallel.segments().get(1).metadata().getString("index")).isEqualTo("1");
+    }
+
+    /**
+     * Run with -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void reportsWallTimeAndAllocation() throws IOException {
+        for (int parallelism : new int[]{1, 4}) {
+            DocumentExtractor extractor = extractor(parallelism);
+            extractor.extract(pdf, new Metadata()); // warm-up
+
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+            System.gc();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+
+            DocumentExtractor.Extraction extraction = extractor.extract(pdf, new Metadata());
+
+            long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long allocatedMb = (allocatedBytes() - allocatedBefore) >> 20;
+            long peakHeapMb = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() >> 20;
+            log.info("PDF extraction, {} pages, parallelism {}: {} ms, {} MB allocated, {} MB peak heap, {} segments",
+                    PAGES, parallelism, wallMs, allocatedMb, peakHeapMb, extraction.segments().size());
+            assertThat(extraction.segments()).isNotEmpty();
+        }
+    }
+
+    private static DocumentExtractor extractor(int parallelism) {
+        DocumentExtractor extractor = new DocumentExtractor(executor);
+        ReflectionTestUtils.setField(extractor, "pagesPerTask", 20);
+        ReflectionTestUtils.setField(extractor, "parallelism", parallelism);
+        return extractor;
+    }
+
+    // Bytes allocated so far by all live threads (the pool threads outlive the extraction)
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            total += Math.max(allocated, 0);
+        }
+        return total;
+    }
+}
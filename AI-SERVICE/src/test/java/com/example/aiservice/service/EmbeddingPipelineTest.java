@@ -0,0 +1,273 @@
+package com.example.aiservice.service;
+
+import com.example.aiservice.repository.EmbeddingCacheRepository;
+import dev.ai4j.openai4j.OpenAiHttpException;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch size control of the embedding pipeline: additive increase on success, halving
+ * and splitting of the batch on a rate limit (HTTP 429), plus a throughput benchmark
+ */
+@Slf4j
+class EmbeddingPipelineTest {
+
+    // Round trip of the fake provider, per embedding call
+    private static final long PROVIDER_LATENCY_MS = 20;
+    private static final int DIMENSION = 384;
+
+    @TempDir
+    Path dir;
+
+    private EmbeddingCache embeddingCache;
+    private EmbeddingStore<TextSegment> embeddingStore;
+    private ThreadPoolTaskExecutor executor;
+    // Sizes of the batches sent to the provider, in call order
+    private final List<Integer> calls = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        embeddingCache = mock(EmbeddingCache.class);
+        embeddingStore = mock(EmbeddingStore.class);
+        when(embeddingStore.addAll(anyList(), anyList())).thenAnswer(invocation -> {
+            List<TextSegment> segments = invocation.getArgument(1);
+            return segments.stream().map(segment -> "v-" + segment.text()).toList();
+        });
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(2);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void batchSizeGrowsAfterEachSuccess() {
+        providerAnswers(size -> false);
+        EmbeddingPipeline pipeline = pipeline(1, 8);
+
+        EmbeddingPipeline.Result result = pipeline.embedAndStore(segments(8));
+
+        assertThat(result.ids()).containsExactlyElementsOf(ids(8));
+        assertThat(calls).containsExactly(8);
+        assertThat(batchSize(pipeline)).isEqualTo(12);
+    }
+
+    @Test
+    void batchSizeIsCapped() {
+        providerAnswers(size -> false);
+        EmbeddingPipeline pipeline = pipeline(1, 30);
+
+        pipeline.embedAndStore(segments(30));
+
+        assertThat(batchSize(pipeline)).isEqualTo(32);
+    }
+
+    @Test
+    void rateLimitedBatchIsHalvedAndRetriedInPieces() {
+        AtomicInteger rateLimits = new AtomicInteger(1);
+        providerAnswers(size -> rateLimits.getAndDecrement() > 0);
+        EmbeddingPipeline pipeline = pipeline(1, 8);
+
+        EmbeddingPipeline.Result result = pipeline.embedAndStore(segments(8));
+
+        assertThat(calls).containsExactly(8, 4, 4);
+        // Pieces are stored in the order of the segments
+        assertThat(result.ids()).containsExactlyElementsOf(ids(8));
+        // Halved to 4, then +4 after each piece
+        assertThat(batchSize(pipeline)).isEqualTo(12);
+    }
+
+    @Test
+    void batchSizeNeverDropsBelowTheMinimum() {
+        AtomicInteger rateLimits = new AtomicInteger(3);
+        providerAnswers(size -> rateLimits.getAndDecrement() > 0);
+        EmbeddingPipeline pipeline = pipeline(1, 4);
+
+        EmbeddingPipeline.Result result = pipeline.embedAndStore(segments(4));
+
+        // 4 is halved to 2 and split; the first piece is rate limited twice more and retried at 2
+        assertThat(calls).containsExactly(4, 2, 2, 2, 2);
+        assertThat(calls).allSatisfy(size -> assertThat(size).isGreaterThanOrEqualTo(2));
+        assertThat(result.ids()).containsExactlyElementsOf(ids(4));
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        providerAnswers(size -> true);
+        EmbeddingPipeline pipeline = pipeline(1, 2);
+
+        assertThatThrownBy(() -> pipeline.embedAndStore(segments(2)))
+                .isInstanceOf(OpenAiHttpException.class);
+        // First attempt and 3 retries
+        assertThat(calls).containsExactly(2, 2, 2, 2);
+        verify(embeddingStore, never()).addAll(anyList(), anyList());
+    }
+
+    @Test
+    void otherErrorsAreNotRetriedAndStoredBatchesAreDiscarded() {
+        when(embeddingCache.embedAll(anyList())).thenAnswer(invocation -> {
+            List<TextSegment> batch = invocation.getArgument(0);
+            calls.add(batch.size());
+            if (batch.get(0).text().equals("4")) {
+                throw new IllegalStateException("provider down");
+            }
+            return embeddings(batch);
+        });
+        EmbeddingPipeline pipeline = pipeline(2, 4);
+        ReflectionTestUtils.setField(pipeline, "increaseStep", 0);
+
+        assertThatThrownBy(() -> pipeline.embedAndStore(segments(8)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("provider down");
+        assertThat(calls).containsExactlyInAnyOrder(4, 4);
+        verify(embeddingStore).removeAll(List.of("v-0", "v-1", "v-2", "v-3"));
+    }
+
+    /**
+     * Segments/second of a fixture document through the real extractor, embedding cache and
+     * pipeline, with a fake embedding model (fixed latency per call) and an in-memory store;
+     * run with -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void reportsThroughput() throws IOException {
+        Path fixture = dir.resolve("bid-package.txt");
+        Files.writeString(fixture, IntStream.rangeClosed(1, 10_000)
+                .mapToObj(line -> "Lot " + line + " - fourniture et pose conformes au CCTP, article " + line * 7)
+                .collect(Collectors.joining("\n")));
+        List<TextSegment> fixtureSegments = new DocumentExtractor(executor).extract(fixture, new Metadata()).segments();
+
+        ThreadPoolTaskExecutor batchExecutor = new ThreadPoolTaskExecutor();
+        batchExecutor.setCorePoolSize(4);
+        batchExecutor.setMaxPoolSize(4);
+        batchExecutor.initialize();
+        try {
+            // Sequential fixed batches, then the defaults of application.yml
+            for (int[] settings : new int[][]{{1, 64, 0}, {4, 64, 16}}) {
+                EmbeddingCache cache = new EmbeddingCache(new FakeEmbeddingModel(), mock(EmbeddingCacheRepository.class),
+                        new SimpleMeterRegistry(), "local", "unused", 64);
+                EmbeddingPipeline pipeline = new EmbeddingPipeline(cache, new InMemoryEmbeddingStore<>(),
+                        batchExecutor, settings[0], settings[1]);
+                ReflectionTestUtils.setField(pipeline, "minSize", 8);
+                ReflectionTestUtils.setField(pipeline, "maxSize", 256);
+                ReflectionTestUtils.setField(pipeline, "increaseStep", settings[2]);
+                ReflectionTestUtils.setField(pipeline, "maxRetries", 5);
+                ReflectionTestUtils.setField(pipeline, "backoffMs", 1000L);
+
+                long start = System.nanoTime();
+                EmbeddingPipeline.Result result = pipeline.embedAndStore(fixtureSegments);
+                long wallMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+                log.info("Embedding pipeline, {} segments, {} in flight, batch {} +{}: {} ms, {} segments/s",
+                        fixtureSegments.size(), settings[0], settings[1], settings[2], wallMs,
+                        fixtureSegments.size() * 1000L / wallMs);
+                assertThat(result.ids()).hasSize(fixtureSegments.size());
+            }
+        } finally {
+            batchExecutor.shutdown();
+        }
+    }
+
+    private EmbeddingPipeline pipeline(int maxInFlight, int initialSize) {
+        EmbeddingPipeline pipeline = new EmbeddingPipeline(embeddingCache, embeddingStore, executor, maxInFlight, initialSize);
+        ReflectionTestUtils.setField(pipeline, "minSize", 2);
+        ReflectionTestUtils.setField(pipeline, "maxSize", 32);
+        ReflectionTestUtils.setField(pipeline, "increaseStep", 4);
+        ReflectionTestUtils.setField(pipeline, "maxRetries", 3);
+        ReflectionTestUtils.setField(pipeline, "backoffMs", 1L);
+        return pipeline;
+    }
+
+    private interface RateLimit {
+        boolean test(int batchSize);
+    }
+
+    private void providerAnswers(RateLimit rateLimited) {
+        when(embeddingCache.embedAll(anyList())).thenAnswer(invocation -> {
+            List<TextSegment> batch = invocation.getArgument(0);
+            calls.add(batch.size());
+            if (rateLimited.test(batch.size())) {
+                throw new OpenAiHttpException(429, "Rate limit reached");
+            }
+            return embeddings(batch);
+        });
+    }
+
+    private static List<Embedding> embeddings(List<TextSegment> batch) {
+        return batch.stream().map(segment -> Embedding.from(new float[]{Float.parseFloat(segment.text())})).toList();
+    }
+
+    private static List<TextSegment> segments(int count) {
+        return IntStream.range(0, count).mapToObj(i -> TextSegment.from(String.valueOf(i))).toList();
+    }
+
+    private static List<String> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "v-" + i).toList();
+    }
+
+    private static int batchSize(EmbeddingPipeline pipeline) {
+        return ((AtomicInteger) ReflectionTestUtils.getField(pipeline, "batchSize")).get();
+    }
+
+    private static final class FakeEmbeddingModel implements EmbeddingModel {
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> segments) {
+            try {
+                Thread.sleep(PROVIDER_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return Response.from(segments.stream().map(segment -> Embedding.from(vector(segment.text()))).toList());
+        }
+
+        private static float[] vector(String text) {
+            Random random = new Random(text.hashCode());
+            float[] vector = new float[DIMENSION];
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+            return vector;
+        }
+    }
+}
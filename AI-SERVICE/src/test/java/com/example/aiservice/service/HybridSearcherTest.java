@@ -0,0 +1,172 @@
+package com.example.aiservice.service;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HybridSearcherTest {
+
+    private static final Supplier<Embedding> QUERY_EMBEDDING = () -> Embedding.from(new float[]{1, 0});
+
+    private EmbeddingStore<TextSegment> embeddingStore;
+    private LexicalIndex lexicalIndex;
+    private ThreadPoolTaskExecutor executor;
+    private HybridSearcher searcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        embeddingStore = mock(EmbeddingStore.class);
+        lexicalIndex = mock(LexicalIndex.class);
+        executor = executor(4, 10);
+        searcher = searcher(executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void segmentsFoundByBothLegsComeFirst() {
+        vectorHits("a", "b", "c");
+        lexicalHits(hit("c", 0.9), hit("d", 0.8), hit("a", 0.7));
+
+        // a: 1/61 + 1/63, c: 1/63 + 1/61, b: 1/62, d: 1/62
+        HybridSearcher.Result result = searcher.search("q", QUERY_EMBEDDING, null, 4);
+
+        assertThat(texts(result.contents())).containsExactly("a", "c", "b", "d");
+        assertThat(result.degraded()).isFalse();
+    }
+
+    @Test
+    void fusionKeepsTheBestMaxResults() {
+        vectorHits("a", "b", "c", "d");
+        lexicalHits(hit("d", 0.9));
+
+        assertThat(texts(searcher.search("q", QUERY_EMBEDDING, null).contents())).containsExactly("d", "a", "b");
+    }
+
+    @Test
+    void lexicalHitsBelowTheFloorAreDropped() {
+        vectorHits("a");
+        lexicalHits(hit("greeting-match", 0.1), hit("b", 0.5));
+
+        assertThat(texts(searcher.search("bonjour", QUERY_EMBEDDING, null, 4).contents())).containsExactly("a", "b");
+    }
+
+    @Test
+    void lateLegContributesNothing() {
+        lexicalHits(hit("b", 0.9));
+        Supplier<Embedding> slowEmbedding = () -> {
+            sleep(1000);
+            return QUERY_EMBEDDING.get();
+        };
+
+        long start = System.nanoTime();
+        HybridSearcher.Result result = searcher.search("q", slowEmbedding, null, 4);
+
+        assertThat(texts(result.contents())).containsExactly("b");
+        assertThat(result.degraded()).isTrue();
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(900);
+    }
+
+    @Test
+    void legsRejectedByAFullPoolAreSkippedInsteadOfRunInTheCaller() throws InterruptedException {
+        ThreadPoolTaskExecutor saturated = executor(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch busy = new CountDownLatch(1);
+        saturated.execute(() -> {
+            busy.countDown();
+            await(release);
+        });
+        busy.await();
+        vectorHits("a");
+        lexicalHits(hit("b", 0.9));
+
+        try {
+            HybridSearcher.Result result = searcher(saturated).search("q", QUERY_EMBEDDING, null, 4);
+            assertThat(result.contents()).isEmpty();
+            assertThat(result.degraded()).isTrue();
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private HybridSearcher searcher(ThreadPoolTaskExecutor executor) {
+        HybridSearcher hybridSearcher = new HybridSearcher(embeddingStore, lexicalIndex, executor);
+        ReflectionTestUtils.setField(hybridSearcher, "rrfK", 60);
+        ReflectionTestUtils.setField(hybridSearcher, "candidatesPerLeg", 10);
+        ReflectionTestUtils.setField(hybridSearcher, "vectorBudgetMs", 300);
+        ReflectionTestUtils.setField(hybridSearcher, "lexicalBudgetMs", 300);
+        ReflectionTestUtils.setField(hybridSearcher, "lexicalMinScore", 0.25);
+        return hybridSearcher;
+    }
+
+    private static ThreadPoolTaskExecutor executor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    private void vectorHits(String... ids) {
+        List<EmbeddingMatch<TextSegment>> matches = Arrays.stream(ids)
+                .map(id -> new EmbeddingMatch<>(0.8, id, null, TextSegment.from(id)))
+                .toList();
+        when(embeddingStore.search(any())).thenReturn(new EmbeddingSearchResult<>(matches));
+    }
+
+    private void lexicalHits(LexicalIndex.Hit... hits) {
+        when(lexicalIndex.search(anyString(), any(), anyInt())).thenReturn(List.of(hits));
+    }
+
+    private static LexicalIndex.Hit hit(String id, double score) {
+        return new LexicalIndex.Hit(id, TextSegment.from(id), score);
+    }
+
+    private static List<String> texts(List<Content> contents) {
+        return contents.stream().map(content -> content.textSegment().text()).toList();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.aiservice.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.aiservice.dto.ChatRequest;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.rag.content.Content;
+import dev.langchain4j.rag.content.retriever.ContentRetriever;
+import dev.langchain4j.service.AiServices;
+import dev.langchain4j.service.MemoryId;
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request overhead of the chat path with an instant model and retriever: the former
+ * AiServices proxy built for each request against the prompt built directly by RagService
+ */
+@Slf4j
+class RagServiceTest {
+
+    private static final int WARM_UP = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final String ANSWER = "Lot 3 requires an ISO 9001 certificate";
+
+    private final ChatLanguageModel chatModel = new ChatLanguageModel() {
+        @Override
+        public Response<AiMessage> generate(List<ChatMessage> messages) {
+            return Response.from(AiMessage.from(ANSWER));
+        }
+    };
+    private final ContentRetriever contentRetriever = query -> IntStream.range(0, 3)
+            .mapToObj(i -> Content.from(TextSegment.from("Lot " + i + " - fourniture et pose conformes au CCTP",
+                    Metadata.from(Map.of(SegmentMetadata.DOCUMENT_ID, "doc-" + i)))))
+            .toList();
+    private final ChatMemoryProvider chatMemoryProvider = memoryId -> MessageWindowChatMemory.builder()
+            .id(memoryId)
+            .maxMessages(10)
+            .build();
+
+    /**
+     * Run with -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void reportsPerRequestOverhead() {
+        RagService ragService = new RagService(chatModel, null, contentRetriever, chatMemoryProvider);
+        ChatRequest request = new ChatRequest("Which certificates does lot 3 require?", "conversation-1", "SUPPLIER", "tender-1");
+
+        // Both paths log the same two lines per request in production: keep them out of the measure
+        Logger ragLogger = (Logger) LoggerFactory.getLogger(RagService.class);
+        Level level = ragLogger.getLevel();
+        ragLogger.setLevel(Level.WARN);
+        try {
+            measure("AiServices proxy per request", () -> AiServices.builder(Assistant.class)
+                    .chatLanguageModel(chatModel)
+                    .chatMemoryProvider(chatMemoryProvider)
+                    .contentRetriever(contentRetriever)
+                    .build()
+                    .chatWithSupplier(request.conversationId(), "[Context ID: " + request.contextId() + "] " + request.query()));
+            measure("Prompt built by RagService", () -> ragService.chat(request).answer());
+        } finally {
+            ragLogger.setLevel(level);
+        }
+    }
+
+    private static void measure(String label, Supplier<String> chat) {
+        for (int i = 0; i < WARM_UP; i++) {
+            assertThat(chat.get()).isEqualTo(ANSWER);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            chat.get();
+        }
+
+        long nanosPerRequest = (System.nanoTime() - start) / REQUESTS;
+        long bytesPerRequest = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / REQUESTS;
+        log.info("{}: {} us, {} KB allocated per request", label, String.format("%.1f", nanosPerRequest / 1000.0),
+                bytesPerRequest >> 10);
+    }
+
+    /**
+     * The assistant RagService used to build for each request
+     */
+    interface Assistant {
+        @SystemMessage("You are an expert Bidding Consultant for BidConnect. " +
+                "Your goal is to help suppliers understand tender requirements and optimize submissions. " +
+                "IMPORTANT: If the user says 'hello' or asks 'who are you', introduce yourself as a Bidding Consultant. " +
+                "Only use retrieved context if it directly relates to the user's specific question about a tender.")
+        String chatWithSupplier(@MemoryId String memoryId, @UserMessage String userMessage);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.aiservice.store;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Recall@k of the HNSW store against a brute-force cosine scan of the same vectors,
+ * with and without metadata filters; latencies of both are logged by the benchmark
+ */
+@Slf4j
+class LuceneHnswEmbeddingStoreTest {
+
+    private static final int VECTORS = 5000;
+    private static final int DIMENSION = 32;
+    private static final int QUERIES = 100;
+    private static final int K = 10;
+    private static final int DOCUMENTS = 20;
+    private static final double MIN_RECALL = 0.9;
+    private static final Filter ONE_DOCUMENT = metadataKey("document_id").isEqualTo("doc-3");
+    private static final Predicate<Integer> IN_ONE_DOCUMENT = i -> i % DOCUMENTS == 3;
+    private static final Filter TENDER_OR_DOCUMENT = metadataKey("owner_type").isEqualTo("TENDER")
+            .and(metadataKey("document_id").isEqualTo("doc-4"))
+            .or(metadataKey("document_id").isEqualTo("doc-5"));
+    private static final Predicate<Integer> IN_TENDER_OR_DOCUMENT = i -> (i % 2 == 0 && i % DOCUMENTS == 4) || i % DOCUMENTS == 5;
+    private static final Filter NOT_TENDER = new Not(metadataKey("owner_type").isEqualTo("TENDER"));
+    private static final Predicate<Integer> IN_NOT_TENDER = i -> i % 2 == 1;
+
+    @TempDir
+    Path dir;
+
+    private final Random random = new Random(42);
+    private LuceneHnswEmbeddingStore store;
+    private List<String> ids;
+    private List<float[]> vectors;
+    private List<TextSegment> segments;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new LuceneHnswEmbeddingStore(dir.resolve("index"), 16, 100, 60_000);
+        vectors = new ArrayList<>();
+        segments = new ArrayList<>();
+        for (int i = 0; i < VECTORS; i++) {
+            vectors.add(randomUnitVector(DIMENSION));
+            segments.add(TextSegment.from("segment " + i, Metadata.from(Map.of(
+                    "document_id", "doc-" + (i % DOCUMENTS),
+                    "owner_type", i % 2 == 0 ? "TENDER" : "SUBMISSION"))));
+        }
+        ids = new ArrayList<>();
+        // Several batches, as the ingestion pipeline writes them
+        for (int from = 0; from < VECTORS; from += 500) {
+            ids.addAll(store.addAll(
+                    vectors.subList(from, from + 500).stream().map(Embedding::from).toList(),
+                    segments.subList(from, from + 500)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void recallAgainstBruteForce() {
+        assertThat(recall(null, i -> true).value()).isGreaterThanOrEqualTo(MIN_RECALL);
+    }
+
+    @Test
+    void recallWithMetadataFilters() {
+        assertThat(recall(ONE_DOCUMENT, IN_ONE_DOCUMENT).value()).isGreaterThanOrEqualTo(MIN_RECALL);
+        assertThat(recall(TENDER_OR_DOCUMENT, IN_TENDER_OR_DOCUMENT).value()).isGreaterThanOrEqualTo(MIN_RECALL);
+        assertThat(recall(NOT_TENDER, IN_NOT_TENDER).value()).isGreaterThanOrEqualTo(MIN_RECALL);
+    }
+
+    /**
+     * Query latency of the store and of the brute-force scan, run with -Pbenchmark
+     */
+    @Test
+    @Tag("benchmark")
+    void reportsQueryLatency() {
+        report("no filter", recall(null, i -> true));
+        report("equality", recall(ONE_DOCUMENT, IN_ONE_DOCUMENT));
+        report("and/or", recall(TENDER_OR_DOCUMENT, IN_TENDER_OR_DOCUMENT));
+        report("not", recall(NOT_TENDER, IN_NOT_TENDER));
+    }
+
+    @Test
+    void scoresUseTheQdrantScale() {
+        float[] query = randomUnitVector(DIMENSION);
+        EmbeddingMatch<TextSegment> best = search(query, null).get(0);
+        int index = ids.indexOf(best.embeddingId());
+
+        assertThat(best.score()).isCloseTo((1 + cosine(query, vectors.get(index))) / 2, within(1e-4));
+        assertThat(best.embedded().text()).isEqualTo("segment " + index);
+        assertThat(best.embedded().metadata().getString("document_id")).isEqualTo("doc-" + (index % DOCUMENTS));
+    }
+
+    @Test
+    void highDimensionVectorsSurviveReopening() throws IOException {
+        Path highDimensionIndex = dir.resolve("openai");
+        float[] vector = randomUnitVector(1536);
+        String id;
+        try (LuceneHnswEmbeddingStore openAiSized = new LuceneHnswEmbeddingStore(highDimensionIndex, 16, 100, 60_000)) {
+            id = openAiSized.add(Embedding.from(vector), TextSegment.from("1536 dimensions"));
+            // Searchable before any commit
+            assertThat(openAiSized.search(request(vector, null)).matches()).extracting(EmbeddingMatch::embeddingId)
+                    .containsExactly(id);
+        }
+        // Committed on close, read back by the standard Lucene99 format
+        try (LuceneHnswEmbeddingStore reopened = new LuceneHnswEmbeddingStore(highDimensionIndex, 16, 100, 60_000)) {
+            EmbeddingMatch<TextSegment> match = reopened.search(request(vector, null)).matches().get(0);
+            assertThat(match.embeddingId()).isEqualTo(id);
+            assertThat(match.embedding().vector()).containsExactly(vector);
+        }
+    }
+
+    @Test
+    void listsDistinctMetadataValuesPageByPage() {
+        store.removeAll(metadataKey("document_id").isEqualTo("doc-7"));
+
+        Set<String> values = new HashSet<>();
+        String cursor = null;
+        do {
+            MetadataValueScanner.Page page = store.distinctValues("document_id", cursor, 3);
+            values.addAll(page.values());
+            cursor = page.next();
+        } while (cursor != null);
+
+        assertThat(values).hasSize(DOCUMENTS - 1).doesNotContain("doc-7").contains("doc-0", "doc-19");
+    }
+
+    /**
+     * Mean share of the exact top K found by the store, with the mean latency of both searches
+     */
+    private Recall recall(Filter filter, Predicate<Integer> matchesFilter) {
+        long hnswNanos = 0;
+        long bruteForceNanos = 0;
+        double found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = randomUnitVector(DIMENSION);
+
+            long start = System.nanoTime();
+            Set<String> expected = new HashSet<>(bruteForce(query, matchesFilter));
+            bruteForceNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<EmbeddingMatch<TextSegment>> matches = search(query, filter);
+            hnswNanos += System.nanoTime() - start;
+
+            for (EmbeddingMatch<TextSegment> match : matches) {
+                assertThat(matchesFilter.test(ids.indexOf(match.embeddingId()))).isTrue();
+            }
+            found += matches.stream().filter(match -> expected.contains(match.embeddingId())).count()
+                    / (double) expected.size();
+        }
+        return new Recall(found / QUERIES, hnswNanos / QUERIES / 1000, bruteForceNanos / QUERIES / 1000);
+    }
+
+    private static void report(String label, Recall recall) {
+        log.info("HNSW {}: recall@{} {}, {} us per query (brute force {} us)", label, K,
+                String.format("%.3f", recall.value()), recall.hnswMicros(), recall.bruteForceMicros());
+    }
+
+    private List<String> bruteForce(float[] query, Predicate<Integer> matchesFilter) {
+        return IntStream.range(0, VECTORS)
+                .filter(matchesFilter::test)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> cosine(query, vectors.get(i))).reversed())
+                .limit(K)
+                .map(ids::get)
+                .toList();
+    }
+
+    private List<EmbeddingMatch<TextSegment>> search(float[] query, Filter filter) {
+        return store.search(request(query, filter)).matches();
+    }
+
+    private static EmbeddingSearchRequest request(float[] query, Filter filter) {
+        return EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(query))
+                .maxResults(K)
+                .filter(filter)
+                .build();
+    }
+
+    private float[] randomUnitVector(int dimension) {
+        float[] vector = new float[dimension];
+        double norm = 0;
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < dimension; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+
+    private record Recall(double value, long hnswMicros, long bruteForceMicros) {
+    }
+}
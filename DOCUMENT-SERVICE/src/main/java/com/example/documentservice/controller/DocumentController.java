@@ -2,6 +2,7 @@ package com.example.documentservice.controller;
 
 import com.example.documentservice.service.DocumentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,9 +20,16 @@ public class DocumentController {
         return documentService.upload(file);
     }
     @GetMapping("/{id}/download")
-    public ResponseEntity<byte[]> download(@PathVariable String id) {
+    public ResponseEntity<InputStreamResource> download(@PathVariable String id) {
         return documentService.download(id);
     }
+    // Utilisé par AI-SERVICE pour retrouver les embeddings orphelins
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> exists(@PathVariable String id) {
+        return documentService.exists(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable String id) {
         documentService.delete(id);
@@ -0,0 +1,20 @@
+package com.example.documentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Published once a document is removed; AI-SERVICE drops its embeddings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentDeletedEvent {
+    private String documentId;
+    private Instant timestamp;
+}
@@ -0,0 +1,31 @@
+package com.example.documentservice.kafka;
+
+import com.example.documentservice.dto.DocumentDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentEventProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.topic.document-deleted}")
+    private String topicName;
+
+    /**
+     * Keyed by documentId, like document-uploaded. A lost event is caught up by the AI-SERVICE reconciliation sweep.
+     */
+    public void sendDocumentDeleted(DocumentDeletedEvent event) {
+        try {
+            kafkaTemplate.send(topicName, event.getDocumentId(), event);
+            log.info("Sent document-deleted event for document {}", event.getDocumentId());
+        } catch (Exception e) {
+            log.error("Failed to send document-deleted event for document {}. Error: {}", event.getDocumentId(), e.getMessage());
+        }
+    }
+}
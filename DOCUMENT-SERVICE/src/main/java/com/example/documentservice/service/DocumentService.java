@@ -1,10 +1,12 @@
 package com.example.documentservice.service;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface DocumentService {
     String upload(MultipartFile file);
-    ResponseEntity<byte[]> download(String documentId);
+    ResponseEntity<InputStreamResource> download(String documentId);
     void delete(String documentId);
+    boolean exists(String documentId);
 }
\ No newline at end of file
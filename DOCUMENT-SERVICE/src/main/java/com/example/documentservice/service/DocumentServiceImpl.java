@@ -1,12 +1,16 @@
 package com.example.documentservice.service;
 
+import com.example.documentservice.dto.DocumentDeletedEvent;
 import com.example.documentservice.entity.Document;
+import com.example.documentservice.kafka.DocumentEventProducer;
 import com.example.documentservice.repository.DocumentRepository;
 import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
 import lombok.*;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -14,7 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.io.InputStream;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -24,6 +28,7 @@ public class DocumentServiceImpl implements DocumentService {
 
     private final MinioClient minioClient;
     private final DocumentRepository repo;
+    private final DocumentEventProducer documentEventProducer;
 
     @Value("${minio.bucket}")
     private String bucket;
@@ -64,7 +69,7 @@ public class DocumentServiceImpl implements DocumentService {
         }
     }
     @Override
-    public ResponseEntity<byte[]> download(String documentId) {
+    public ResponseEntity<InputStreamResource> download(String documentId) {
 
         try {
             // 1️⃣ Chercher le document en DB
@@ -72,26 +77,28 @@ public class DocumentServiceImpl implements DocumentService {
                     .orElseThrow(() ->
                             new RuntimeException("Document not found"));
 
-            // 2️⃣ Lire le fichier depuis MinIO
-            InputStream stream = minioClient.getObject(
+            // 2️⃣ Ouvrir le flux depuis MinIO (le fichier n'est jamais chargé en mémoire)
+            GetObjectResponse stream = minioClient.getObject(
                     GetObjectArgs.builder()
                             .bucket(bucket)
                             .object(document.getObjectName())
                             .build()
             );
 
-            byte[] fileBytes = stream.readAllBytes();
-
-            // 3️⃣ Construire la réponse HTTP
-            return ResponseEntity.ok()
+            // 3️⃣ Construire la réponse HTTP : Spring recopie le flux par blocs puis le ferme
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                     .contentType(
                             MediaType.parseMediaType(document.getContentType())
                     )
                     .header(
                             HttpHeaders.CONTENT_DISPOSITION,
                             "attachment; filename=\"" + document.getFileName() + "\""
-                    )
-                    .body(fileBytes);
+                    );
+            String length = stream.headers().get(HttpHeaders.CONTENT_LENGTH);
+            if (length != null) {
+                response.contentLength(Long.parseLong(length));
+            }
+            return response.body(new InputStreamResource(stream));
 
         } catch (Exception e) {
             throw new RuntimeException("Download failed", e);
@@ -117,10 +124,20 @@ public class DocumentServiceImpl implements DocumentService {
             // 3️⃣ Supprimer l’entrée en base
             repo.deleteById(documentId);
 
+            // 4️⃣ Prévenir AI-SERVICE (suppression des embeddings)
+            documentEventProducer.sendDocumentDeleted(DocumentDeletedEvent.builder()
+                    .documentId(documentId)
+                    .timestamp(Instant.now())
+                    .build());
+
         } catch (Exception e) {
             throw new RuntimeException("Delete failed", e);
         }
     }
+    @Override
+    public boolean exists(String documentId) {
+        return repo.existsById(documentId);
+    }
 
 
 }
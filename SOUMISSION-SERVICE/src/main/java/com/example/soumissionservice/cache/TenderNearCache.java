@@ -0,0 +1,45 @@
+package com.example.soumissionservice.cache;
+
+import com.example.soumissionservice.dto.EvaluationCriterionResponseDTO;
+import com.example.soumissionservice.dto.TenderResponse;
+import com.example.soumissionservice.feignclients.TenderClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bounded, TTL-evicted near-cache in front of {@link TenderClient}.
+ * Entries are dropped on tender-service events (see TenderEventConsumer) and otherwise
+ * expire after the TTL configured in {@code spring.cache.caffeine.spec}.
+ * Hit/miss counters are exported by actuator as {@code cache.gets}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenderNearCache {
+
+    public static final String TENDERS = "tenders";
+    public static final String TENDER_CRITERIA = "tenderCriteria";
+
+    private final TenderClient tenderClient;
+
+    // Only PUBLISHED tenders are stable enough to be cached
+    @Cacheable(cacheNames = TENDERS, unless = "#result == null || #result.status() != 'PUBLISHED'")
+    public TenderResponse getTender(String tenderId) {
+        return tenderClient.getTender(tenderId);
+    }
+
+    @Cacheable(cacheNames = TENDER_CRITERIA, unless = "#result == null")
+    public List<EvaluationCriterionResponseDTO> getCriteria(String tenderId) {
+        return tenderClient.getCriteria(tenderId).getBody();
+    }
+
+    @CacheEvict(cacheNames = {TENDERS, TENDER_CRITERIA}, key = "#tenderId")
+    public void evict(String tenderId) {
+        log.info("Evicted tender {} from near-cache", tenderId);
+    }
+}
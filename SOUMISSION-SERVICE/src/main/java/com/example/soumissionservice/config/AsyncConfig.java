@@ -0,0 +1,64 @@
+package com.example.soumissionservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Bounded pool running the ingestion / analysis / scoring stages of new submissions,
+     * so slow AI calls never hold a Tomcat request thread.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor submissionPipelineExecutor(
+            @Value("${submission.pipeline.core-pool-size}") int corePoolSize,
+            @Value("${submission.pipeline.max-pool-size}") int maxPoolSize,
+            @Value("${submission.pipeline.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("submission-pipeline-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Small pool used to fan out the remote calls of a single request
+     * (tender lookup and document upload run side by side).
+     */
+    @Bean
+    public ThreadPoolTaskExecutor submissionIoExecutor(
+            @Value("${submission.io.core-pool-size}") int corePoolSize,
+            @Value("${submission.io.max-pool-size}") int maxPoolSize,
+            @Value("${submission.io.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("submission-io-");
+        return executor;
+    }
+
+    /**
+     * Runs the StreamingResponseBody of the NDJSON exports (see WebMvcAsyncConfig).
+     * Declaring the pools above makes Boot skip its applicationTaskExecutor, and Spring MVC
+     * would then fall back to an unbounded SimpleAsyncTaskExecutor (one thread per export).
+     */
+    @Bean
+    public ThreadPoolTaskExecutor submissionExportExecutor(
+            @Value("${submission.export.core-pool-size}") int corePoolSize,
+            @Value("${submission.export.max-pool-size}") int maxPoolSize,
+            @Value("${submission.export.queue-capacity}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("submission-export-");
+        return executor;
+    }
+}
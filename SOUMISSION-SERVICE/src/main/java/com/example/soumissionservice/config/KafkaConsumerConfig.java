@@ -0,0 +1,85 @@
+package com.example.soumissionservice.config;
+
+import com.example.soumissionservice.dto.DocumentIngestedEvent;
+import com.example.soumissionservice.dto.TenderEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafka
+public class KafkaConsumerConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    private <T> Map<String, Object> jsonConsumerProps(Class<T> valueType) {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        // Value deserializer with error handling
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, valueType.getName());
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "com.example.soumissionservice.dto");
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        return config;
+    }
+
+    /**
+     * Every instance keeps its own near-cache, so every instance needs every tender event:
+     * the group id is unique per instance (see spring.kafka.consumer.tender-events-group-id)
+     * and only events published after startup matter.
+     */
+    @Bean
+    public ConsumerFactory<String, TenderEvent> tenderEventConsumerFactory(
+            @Value("${spring.kafka.consumer.tender-events-group-id}") String groupId) {
+        Map<String, Object> config = jsonConsumerProps(TenderEvent.class);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TenderEvent> tenderEventListenerContainerFactory(
+            ConsumerFactory<String, TenderEvent> tenderEventConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, TenderEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(tenderEventConsumerFactory);
+        return factory;
+    }
+
+    /**
+     * Ingestion outcomes resume the submission pipeline: one instance per event is enough,
+     * so the group is shared and events published while we were down are still processed.
+     */
+    @Bean
+    public ConsumerFactory<String, DocumentIngestedEvent> documentIngestedConsumerFactory(
+            @Value("${spring.kafka.consumer.pipeline-group-id}") String groupId) {
+        Map<String, Object> config = jsonConsumerProps(DocumentIngestedEvent.class);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(config);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, DocumentIngestedEvent> documentIngestedListenerContainerFactory(
+            ConsumerFactory<String, DocumentIngestedEvent> documentIngestedConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<String, DocumentIngestedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(documentIngestedConsumerFactory);
+        return factory;
+    }
+}
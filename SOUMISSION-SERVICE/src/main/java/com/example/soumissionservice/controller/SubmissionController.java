@@ -1,13 +1,27 @@
 package com.example.soumissionservice.controller;
 
+import com.example.soumissionservice.dto.CursorPage;
+import com.example.soumissionservice.dto.RankedSubmission;
+import com.example.soumissionservice.dto.RescoringReport;
 import com.example.soumissionservice.dto.StatusUpdateRequest;
+import com.example.soumissionservice.dto.SubmissionProgressResponse;
 import com.example.soumissionservice.dto.SubmissionRequest;
 import com.example.soumissionservice.dto.SubmissionResponse;
+import com.example.soumissionservice.dto.SubmissionSummary;
+import com.example.soumissionservice.dto.TenderSubmissionStatsResponse;
+import com.example.soumissionservice.entity.SubmissionStage;
+import com.example.soumissionservice.services.RescoringService;
+import com.example.soumissionservice.services.SubmissionPipelineService;
 import com.example.soumissionservice.services.SubmissionService;
+import com.example.soumissionservice.services.TenderStatsService;
 import lombok.RequiredArgsConstructor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,11 +33,29 @@ import java.util.List;
 public class SubmissionController {
 
     private final SubmissionService submissionService;
+    private final SubmissionPipelineService submissionPipelineService;
+    private final RescoringService rescoringService;
+    private final TenderStatsService tenderStatsService;
 
-    @Operation(summary = "Create a new submission", description = "Create a new submission for a tender")
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Operation(summary = "Create a new submission", description = "Accept a new submission for a tender; AI ingestion, analysis and scoring run in the background")
     @PostMapping(consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
-    public SubmissionResponse submit(@ModelAttribute SubmissionRequest req) {
-        return submissionService.createSubmission(req);
+    public ResponseEntity<SubmissionResponse> submit(@ModelAttribute SubmissionRequest req) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(submissionService.createSubmission(req));
+    }
+
+    @Operation(summary = "Get submission progress", description = "Progress of the ingestion, analysis and scoring stages of a submission")
+    @GetMapping("/{id}/progress")
+    public SubmissionProgressResponse getProgress(@PathVariable String id) {
+        return submissionPipelineService.getProgress(id);
+    }
+
+    @Operation(summary = "Retry a failed stage", description = "Re-run a FAILED stage of the submission pipeline and the stages after it")
+    @PostMapping("/{id}/stages/{stage}/retry")
+    public ResponseEntity<SubmissionProgressResponse> retryStage(@PathVariable String id,
+            @PathVariable SubmissionStage stage) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(submissionPipelineService.retryStage(id, stage));
     }
 
     @Operation(summary = "Delete a submission", description = "Delete a submission by its ID")
@@ -51,16 +83,75 @@ public class SubmissionController {
         return submissionService.getAllSubmissions();
     }
 
+    @Operation(summary = "Get a page of submissions", description = "Keyset-paginated submission summaries (without the AI analysis text); pass nextCursor back to get the next page")
+    @GetMapping("/page")
+    public CursorPage<SubmissionSummary> getPage(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return submissionService.getPage(cursor, size);
+    }
+
     @Operation(summary = "Get submissions by tender ID", description = "Retrieve all submissions for a specific tender")
     @GetMapping("/tender/{tenderId}")
     public List<SubmissionResponse> getByTender(@PathVariable String tenderId) {
         return submissionService.getByTender(tenderId);
     }
 
+    @Operation(summary = "Get a page of a tender's submissions", description = "Keyset-paginated submission summaries of a tender")
+    @GetMapping("/tender/{tenderId}/page")
+    public CursorPage<SubmissionSummary> getPageByTender(@PathVariable String tenderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return submissionService.getPageByTender(tenderId, cursor, size);
+    }
+
+    @Operation(summary = "Export a tender's submissions", description = "Stream every submission summary of a tender as newline-delimited JSON")
+    @GetMapping(value = "/tender/{tenderId}/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportByTender(@PathVariable String tenderId) {
+        return ndjson(out -> submissionService.exportByTender(tenderId, out));
+    }
+
+    @Operation(summary = "Get the best submissions of a tender", description = "Top-k submissions ranked by score (without the AI analysis text); pass nextCursor back to page through the ranks")
+    @GetMapping("/tender/{tenderId}/top")
+    public CursorPage<RankedSubmission> getLeaderboard(@PathVariable String tenderId,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(required = false) String cursor) {
+        return submissionService.getLeaderboard(tenderId, k, cursor);
+    }
+
+    @Operation(summary = "Get tender submission stats", description = "Running aggregates (best price, best delivery time, count) of a tender's submissions")
+    @GetMapping("/tender/{tenderId}/stats")
+    public TenderSubmissionStatsResponse getTenderStats(@PathVariable String tenderId) {
+        return tenderStatsService.getStatsResponse(tenderId);
+    }
+
+    @Operation(summary = "Re-score a tender's submissions", description = "Recompute the score of every submission of a tender with its current criteria")
+    @PostMapping("/tender/{tenderId}/rescore")
+    public RescoringReport rescoreTender(@PathVariable String tenderId) {
+        return rescoringService.rescoreTender(tenderId);
+    }
+
     @Operation(summary = "Get submissions by supplier ID", description = "Retrieve all submissions for a specific supplier")
     @GetMapping("/supplier/{supplierId}")
     public List<SubmissionResponse> getBySupplier(@PathVariable String supplierId) {
         return submissionService.getBySupplier(supplierId);
     }
 
+    @Operation(summary = "Get a page of a supplier's submissions", description = "Keyset-paginated submission summaries of a supplier")
+    @GetMapping("/supplier/{supplierId}/page")
+    public CursorPage<SubmissionSummary> getPageBySupplier(@PathVariable String supplierId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return submissionService.getPageBySupplier(supplierId, cursor, size);
+    }
+
+    @Operation(summary = "Export a supplier's submissions", description = "Stream every submission summary of a supplier as newline-delimited JSON")
+    @GetMapping(value = "/supplier/{supplierId}/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBySupplier(@PathVariable String supplierId) {
+        return ndjson(out -> submissionService.exportBySupplier(supplierId, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
 }
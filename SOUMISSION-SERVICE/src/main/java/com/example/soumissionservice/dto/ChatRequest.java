@@ -5,6 +5,8 @@ package com.example.soumissionservice.dto;
  */
 public record ChatRequest(
         String query,
-        String conversationId // Optional: for maintaining chat history
+        String conversationId, // Optional: for maintaining chat history
+        String userRole, // Optional: for persona selecting
+        String contextId // Optional: tender or submission id, scopes the retrieved documents
 ) {
 }
@@ -0,0 +1,23 @@
+package com.example.soumissionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outcome of an ingestion, published back by AI-SERVICE.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentIngestedEvent {
+    private String documentId;
+    private String tenderId;
+    private String submissionId;
+    private String status; // COMPLETED, ALREADY_EXISTS, FAILED
+    private Integer chunkCount;
+    private String message;
+    private Instant timestamp;
+}
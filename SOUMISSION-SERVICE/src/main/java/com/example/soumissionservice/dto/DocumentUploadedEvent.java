@@ -0,0 +1,23 @@
+package com.example.soumissionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Asks AI-SERVICE to ingest a stored document; consumed asynchronously.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentUploadedEvent {
+    private String documentId;
+    private String documentUrl;
+    private String tenderId;
+    private String submissionId;
+    private Instant timestamp;
+}
@@ -0,0 +1,6 @@
+package com.example.soumissionservice.dto;
+
+public record RankedSubmission(
+        int rank,
+        SubmissionSummary submission
+) {}
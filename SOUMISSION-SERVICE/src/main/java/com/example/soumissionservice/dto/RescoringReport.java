@@ -0,0 +1,9 @@
+package com.example.soumissionservice.dto;
+
+public record RescoringReport(
+        String tenderId,
+        int processed,
+        int chunks,
+        long elapsedMs,
+        double submissionsPerSecond
+) {}
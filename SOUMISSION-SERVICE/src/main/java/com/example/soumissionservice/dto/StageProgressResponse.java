@@ -0,0 +1,15 @@
+package com.example.soumissionservice.dto;
+
+import com.example.soumissionservice.entity.StageStatus;
+import com.example.soumissionservice.entity.SubmissionStage;
+
+import java.time.LocalDateTime;
+
+public record StageProgressResponse(
+        SubmissionStage stage,
+        StageStatus status,
+        int attempts,
+        String lastError,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt
+) {}
@@ -0,0 +1,11 @@
+package com.example.soumissionservice.dto;
+
+import com.example.soumissionservice.entity.SubmissionStatus;
+
+import java.util.List;
+
+public record SubmissionProgressResponse(
+        String submissionId,
+        SubmissionStatus status,
+        List<StageProgressResponse> stages
+) {}
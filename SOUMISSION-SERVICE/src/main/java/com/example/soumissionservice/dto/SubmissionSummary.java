@@ -0,0 +1,21 @@
+package com.example.soumissionservice.dto;
+
+import com.example.soumissionservice.entity.SubmissionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight view of a submission: everything except the ragAnalysis text.
+ */
+public record SubmissionSummary(
+        String id,
+        String tenderId,
+        String supplierId,
+        String documentId,
+        SubmissionStatus status,
+        Double price,
+        Double technical,
+        Double deadline,
+        Double score,
+        LocalDateTime createdAt
+) {}
@@ -0,0 +1,17 @@
+package com.example.soumissionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenderEvent {
+    private Long tenderId;
+    private TenderEventType eventType;
+    private String status;
+    private Instant timestamp;
+}
@@ -0,0 +1,8 @@
+package com.example.soumissionservice.dto;
+
+public enum TenderEventType {
+    UPDATED,
+    PUBLISHED,
+    CLOSED,
+    DELETED
+}
@@ -0,0 +1,8 @@
+package com.example.soumissionservice.dto;
+
+public record TenderSubmissionStatsResponse(
+        String tenderId,
+        Double minPrice,
+        Double minDeadline,
+        long submissionCount
+) {}
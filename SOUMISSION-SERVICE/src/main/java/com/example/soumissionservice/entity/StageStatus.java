@@ -0,0 +1,8 @@
+package com.example.soumissionservice.entity;
+
+public enum StageStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
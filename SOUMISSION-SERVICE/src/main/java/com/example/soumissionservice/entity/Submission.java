@@ -6,6 +6,13 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // Leaderboard: best scores of a tender first
+        @Index(name = "idx_submission_tender_score", columnList = "tender_id, score DESC, id"),
+        // Keyset pagination of the listings
+        @Index(name = "idx_submission_tender_id", columnList = "tender_id, id"),
+        @Index(name = "idx_submission_supplier_id", columnList = "supplier_id, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 
@@ -0,0 +1,16 @@
+package com.example.soumissionservice.entity;
+
+/**
+ * Background stages run for every submission once it has been accepted.
+ * Stages run in declaration order; each one can be retried on its own.
+ */
+public enum SubmissionStage {
+    INGESTION,
+    ANALYSIS,
+    SCORING;
+
+    public SubmissionStage next() {
+        SubmissionStage[] stages = values();
+        return ordinal() + 1 < stages.length ? stages[ordinal() + 1] : null;
+    }
+}
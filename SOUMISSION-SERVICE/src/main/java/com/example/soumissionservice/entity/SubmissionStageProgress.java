@@ -0,0 +1,41 @@
+package com.example.soumissionservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "submission_stage_progress",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"submissionId", "stage"})
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionStageProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false)
+    private String submissionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SubmissionStage stage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StageStatus status;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
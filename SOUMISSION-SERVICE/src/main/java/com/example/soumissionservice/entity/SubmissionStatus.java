@@ -3,6 +3,7 @@ package com.example.soumissionservice.entity;
 public enum SubmissionStatus {
     SUBMITTED,
     IN_EVALUATION,
+    EVALUATION_FAILED,
     ACCEPTED,
     REJECTED
 }
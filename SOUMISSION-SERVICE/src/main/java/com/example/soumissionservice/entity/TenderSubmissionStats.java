@@ -0,0 +1,24 @@
+package com.example.soumissionservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running aggregates of the submissions of a tender, maintained incrementally
+ * so relative scoring never has to scan the tender's submissions.
+ */
+@Entity
+@Table(name = "tender_submission_stats")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenderSubmissionStats {
+
+    @Id
+    private String tenderId;
+
+    private Double minPrice;
+    private Double minDeadline;
+    private long submissionCount;
+}
@@ -3,7 +3,6 @@ package com.example.soumissionservice.feignclients;
 
 import com.example.soumissionservice.dto.ChatRequest;
 import com.example.soumissionservice.dto.ChatResponse;
-import com.example.soumissionservice.dto.IngestionRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,9 +13,6 @@ import org.springframework.web.multipart.MultipartFile;
 @Component
 public interface AIClient {
 
-    @PostMapping("/api/ai/chat")
+    @PostMapping("/api/ai/analyze")
     ChatResponse analyze(ChatRequest chatRequest);
-
-    @PostMapping("/api/ai/ingest")
-    void ingestFile( IngestionRequest ingestionRequest);
 }
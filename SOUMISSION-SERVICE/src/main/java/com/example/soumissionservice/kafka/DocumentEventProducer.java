@@ -0,0 +1,42 @@
+package com.example.soumissionservice.kafka;
+
+import com.example.soumissionservice.dto.DocumentUploadedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentEventProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.topic.document-uploaded}")
+    private String topicName;
+
+    @Value("${submission.pipeline.publish-timeout-ms}")
+    private long sendTimeoutMs;
+
+    /**
+     * Waits for the broker acknowledgement so that the calling pipeline stage
+     * fails (and is retried) when the event could not be published.
+     */
+    public void sendDocumentUploaded(DocumentUploadedEvent event) {
+        try {
+            kafkaTemplate.send(topicName, event.getDocumentId(), event).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            log.info("Sent document-uploaded event for document {}", event.getDocumentId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing document " + event.getDocumentId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to publish document " + event.getDocumentId() + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.soumissionservice.kafka;
+
+import com.example.soumissionservice.dto.DocumentIngestedEvent;
+import com.example.soumissionservice.services.SubmissionPipelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentIngestedConsumer {
+
+    private final SubmissionPipelineService submissionPipelineService;
+
+    @KafkaListener(topics = "${spring.kafka.topic.document-ingested}", containerFactory = "documentIngestedListenerContainerFactory")
+    public void consumeDocumentIngested(@Payload DocumentIngestedEvent event) {
+        if (event == null || event.getSubmissionId() == null) {
+            // tender documents: nobody waits on them here
+            return;
+        }
+        log.info("Document {} of submission {} ingested with status {}",
+                event.getDocumentId(), event.getSubmissionId(), event.getStatus());
+        boolean success = !"FAILED".equals(event.getStatus());
+        submissionPipelineService.completeIngestion(event.getSubmissionId(), success, event.getMessage());
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.soumissionservice.kafka;
+
+import com.example.soumissionservice.cache.TenderNearCache;
+import com.example.soumissionservice.dto.TenderEvent;
+import com.example.soumissionservice.dto.TenderEventType;
+import com.example.soumissionservice.services.RescoringService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TenderEventConsumer {
+
+    private final TenderNearCache tenderNearCache;
+    private final RescoringService rescoringService;
+
+    @KafkaListener(topics = "${spring.kafka.topic.tender-events}", containerFactory = "tenderEventListenerContainerFactory")
+    public void consumeTenderEvent(@Payload TenderEvent event) {
+        if (event == null || event.getTenderId() == null) {
+            return;
+        }
+        log.info("Received {} event for tender {}", event.getEventType(), event.getTenderId());
+        tenderNearCache.evict(event.getTenderId().toString());
+    }
+
+    /**
+     * Criterion weights may have changed: re-rank the tender's submissions.
+     * Uses a shared group id so only one instance runs the job.
+     */
+    @KafkaListener(topics = "${spring.kafka.topic.tender-events}", groupId = "${spring.kafka.consumer.rescoring-group-id}",
+            containerFactory = "tenderEventListenerContainerFactory")
+    public void rescoreOnTenderUpdate(@Payload TenderEvent event) {
+        if (event == null || event.getTenderId() == null || event.getEventType() != TenderEventType.UPDATED) {
+            return;
+        }
+        rescoringService.scheduleRescoring(event.getTenderId().toString());
+    }
+}
@@ -1,11 +1,90 @@
 package com.example.soumissionservice.repository;
 
+import com.example.soumissionservice.entity.StageStatus;
 import com.example.soumissionservice.entity.Submission;
+import com.example.soumissionservice.entity.SubmissionStatus;
+import com.example.soumissionservice.dto.SubmissionSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SubmissionRepository extends JpaRepository<Submission, String> {
     List<Submission> findByTenderId(String tenderId);
     List<Submission> findBySupplierId(String supplierId);
+
+    String SUMMARY_SELECT = "select new com.example.soumissionservice.dto.SubmissionSummary(" +
+            "s.id, s.tenderId, s.supplierId, s.documentId, s.status, s.price, s.technical, s.deadline, s.score, s.createdAt) ";
+
+    // Keyset pages ordered by id; pass "" as afterId for the first page
+    @Query(SUMMARY_SELECT + "from Submission s where s.id > :afterId order by s.id asc")
+    List<SubmissionSummary> findSummaries(@Param("afterId") String afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "from Submission s where s.tenderId = :tenderId and s.id > :afterId order by s.id asc")
+    List<SubmissionSummary> findSummariesByTender(@Param("tenderId") String tenderId,
+                                                  @Param("afterId") String afterId,
+                                                  Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "from Submission s where s.supplierId = :supplierId and s.id > :afterId order by s.id asc")
+    List<SubmissionSummary> findSummariesBySupplier(@Param("supplierId") String supplierId,
+                                                    @Param("afterId") String afterId,
+                                                    Pageable pageable);
+
+    // Leaderboard, served by idx_submission_tender_score: (score desc, id asc) is a total order
+    @Query(SUMMARY_SELECT + "from Submission s where s.tenderId = :tenderId and s.score is not null " +
+            "order by s.score desc, s.id asc")
+    List<SubmissionSummary> findRanking(@Param("tenderId") String tenderId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "from Submission s where s.tenderId = :tenderId and s.score is not null " +
+            "and (s.score < :score or (s.score = :score and s.id > :id)) " +
+            "order by s.score desc, s.id asc")
+    List<SubmissionSummary> findRankingAfter(@Param("tenderId") String tenderId,
+                                             @Param("score") Double score,
+                                             @Param("id") String id,
+                                             Pageable pageable);
+
+    // Keyset chunk of the scoring inputs of a tender, without loading ragAnalysis
+    @Query("select s.id as id, s.price as price, s.technical as technical, s.deadline as deadline " +
+            "from Submission s where s.tenderId = :tenderId and s.id > :afterId order by s.id asc")
+    List<SubmissionScoringView> findScoringChunk(@Param("tenderId") String tenderId,
+                                                 @Param("afterId") String afterId,
+                                                 Pageable pageable);
+
+    // Targeted updates: background stages must not overwrite a status changed meanwhile by the owner
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.ragAnalysis = :ragAnalysis, s.updatedAt = :updatedAt where s.id = :id")
+    int updateRagAnalysis(@Param("id") String id,
+                          @Param("ragAnalysis") String ragAnalysis,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.score = :score, s.updatedAt = :updatedAt where s.id = :id")
+    int updateScore(@Param("id") String id,
+                    @Param("score") Double score,
+                    @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Pipeline transitions: no effect once the owner has accepted or rejected the submission
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.status = :status, s.updatedAt = :updatedAt where s.id = :id and s.status = :expected")
+    int updateStatusIf(@Param("id") String id,
+                       @Param("expected") SubmissionStatus expected,
+                       @Param("status") SubmissionStatus status,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update Submission s set s.status = :status, s.updatedAt = :updatedAt where s.status = :expected " +
+            "and exists (select p.id from SubmissionStageProgress p where p.submissionId = s.id and p.status = :stageStatus)")
+    int updateStatusWhereStage(@Param("expected") SubmissionStatus expected,
+                               @Param("stageStatus") StageStatus stageStatus,
+                               @Param("status") SubmissionStatus status,
+                               @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,11 @@
+package com.example.soumissionservice.repository;
+
+/**
+ * Projection holding only the columns needed to score a submission.
+ */
+public interface SubmissionScoringView {
+    String getId();
+    Double getPrice();
+    Double getTechnical();
+    Double getDeadline();
+}
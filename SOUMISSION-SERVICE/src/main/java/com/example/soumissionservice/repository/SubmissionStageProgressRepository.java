@@ -0,0 +1,36 @@
+package com.example.soumissionservice.repository;
+
+import com.example.soumissionservice.entity.StageStatus;
+import com.example.soumissionservice.entity.SubmissionStage;
+import com.example.soumissionservice.entity.SubmissionStageProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SubmissionStageProgressRepository extends JpaRepository<SubmissionStageProgress, String> {
+
+    List<SubmissionStageProgress> findBySubmissionId(String submissionId);
+
+    Optional<SubmissionStageProgress> findBySubmissionIdAndStage(String submissionId, SubmissionStage stage);
+
+    @Transactional
+    void deleteBySubmissionId(String submissionId);
+
+    // Single conditional update: an outcome recorded meanwhile is never overwritten
+    @Transactional
+    @Modifying
+    @Query("update SubmissionStageProgress p set p.status = :failed, p.lastError = :error, p.finishedAt = :now " +
+            "where p.stage = :stage and p.status = :running and p.startedAt < :startedBefore")
+    int failStale(@Param("stage") SubmissionStage stage,
+                  @Param("running") StageStatus running,
+                  @Param("failed") StageStatus failed,
+                  @Param("startedBefore") LocalDateTime startedBefore,
+                  @Param("error") String error,
+                  @Param("now") LocalDateTime now);
+}
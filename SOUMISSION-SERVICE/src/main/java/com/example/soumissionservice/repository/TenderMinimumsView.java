@@ -0,0 +1,9 @@
+package com.example.soumissionservice.repository;
+
+/**
+ * Projection of the best offers of a tender, read straight from the database.
+ */
+public interface TenderMinimumsView {
+    Double getMinPrice();
+    Double getMinDeadline();
+}
@@ -0,0 +1,45 @@
+package com.example.soumissionservice.repository;
+
+import com.example.soumissionservice.entity.TenderSubmissionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface TenderSubmissionStatsRepository extends JpaRepository<TenderSubmissionStats, String> {
+
+    // Single atomic statement: concurrent submissions on the same tender cannot lose an update
+    @Transactional
+    @Modifying
+    @Query("update TenderSubmissionStats a set " +
+            "a.minPrice = case when a.minPrice is null or :price < a.minPrice then :price else a.minPrice end, " +
+            "a.minDeadline = case when a.minDeadline is null or :deadline < a.minDeadline then :deadline else a.minDeadline end, " +
+            "a.submissionCount = a.submissionCount + 1 " +
+            "where a.tenderId = :tenderId")
+    int recordSubmission(@Param("tenderId") String tenderId,
+                         @Param("price") Double price,
+                         @Param("deadline") Double deadline);
+
+    @Transactional
+    @Modifying
+    @Query("update TenderSubmissionStats a set a.submissionCount = a.submissionCount - 1 " +
+            "where a.tenderId = :tenderId and a.submissionCount > 0")
+    int removeSubmission(@Param("tenderId") String tenderId);
+
+    // Only needed when the deleted submission held one of the minimums
+    @Transactional
+    @Modifying
+    @Query("update TenderSubmissionStats a set " +
+            "a.minPrice = (select min(s.price) from Submission s where s.tenderId = :tenderId), " +
+            "a.minDeadline = (select min(s.deadline) from Submission s where s.tenderId = :tenderId) " +
+            "where a.tenderId = :tenderId")
+    int recomputeMinimums(@Param("tenderId") String tenderId);
+
+    // Scalar query: never served from the persistence context, so it sees the updates above
+    @Query("select a.minPrice as minPrice, a.minDeadline as minDeadline " +
+            "from TenderSubmissionStats a where a.tenderId = :tenderId")
+    Optional<TenderMinimumsView> findMinimums(@Param("tenderId") String tenderId);
+}
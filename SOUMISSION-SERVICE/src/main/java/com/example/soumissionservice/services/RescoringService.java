@@ -0,0 +1,10 @@
+package com.example.soumissionservice.services;
+
+import com.example.soumissionservice.dto.RescoringReport;
+
+public interface RescoringService {
+
+    RescoringReport rescoreTender(String tenderId);
+
+    void scheduleRescoring(String tenderId);
+}
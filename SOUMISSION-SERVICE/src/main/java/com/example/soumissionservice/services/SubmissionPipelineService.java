@@ -0,0 +1,20 @@
+package com.example.soumissionservice.services;
+
+import com.example.soumissionservice.dto.SubmissionProgressResponse;
+import com.example.soumissionservice.entity.SubmissionStage;
+
+public interface SubmissionPipelineService {
+
+    void start(String submissionId);
+
+    SubmissionProgressResponse getProgress(String submissionId);
+
+    SubmissionProgressResponse retryStage(String submissionId, SubmissionStage stage);
+
+    /**
+     * Called when AI-SERVICE reports the outcome of the INGESTION stage.
+     */
+    void completeIngestion(String submissionId, boolean success, String message);
+
+    void discard(String submissionId);
+}
@@ -1,10 +1,15 @@
 package com.example.soumissionservice.services;
 
+import com.example.soumissionservice.dto.CursorPage;
+import com.example.soumissionservice.dto.RankedSubmission;
 import com.example.soumissionservice.dto.SubmissionRequest;
 import com.example.soumissionservice.dto.SubmissionResponse;
+import com.example.soumissionservice.dto.SubmissionSummary;
 import com.example.soumissionservice.entity.SubmissionStatus;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface SubmissionService {
@@ -18,6 +23,18 @@ public interface SubmissionService {
 
     List<SubmissionResponse> getBySupplier(String supplierId);
 
+    CursorPage<SubmissionSummary> getPage(String cursor, int size);
+
+    CursorPage<SubmissionSummary> getPageByTender(String tenderId, String cursor, int size);
+
+    CursorPage<SubmissionSummary> getPageBySupplier(String supplierId, String cursor, int size);
+
+    void exportByTender(String tenderId, OutputStream out) throws IOException;
+
+    void exportBySupplier(String supplierId, OutputStream out) throws IOException;
+
+    CursorPage<RankedSubmission> getLeaderboard(String tenderId, int k, String cursor);
+
     void updateStatus(String id, SubmissionStatus status);
 
     boolean deleteSubmission(String submissionId);
@@ -0,0 +1,23 @@
+package com.example.soumissionservice.services;
+
+import com.example.soumissionservice.dto.TenderSubmissionStatsResponse;
+import com.example.soumissionservice.entity.Submission;
+import com.example.soumissionservice.entity.TenderSubmissionStats;
+
+public interface TenderStatsService {
+
+    /**
+     * @return true when the best price or delivery time of the tender moved: the scores
+     * already stored for its submissions are stale
+     */
+    boolean onSubmissionCreated(Submission submission);
+
+    /**
+     * @return true when the best price or delivery time of the tender moved
+     */
+    boolean onSubmissionDeleted(Submission submission);
+
+    TenderSubmissionStats getStats(String tenderId);
+
+    TenderSubmissionStatsResponse getStatsResponse(String tenderId);
+}
@@ -0,0 +1,114 @@
+package com.example.soumissionservice.services.impl;
+
+import com.example.soumissionservice.cache.TenderNearCache;
+import com.example.soumissionservice.dto.EvaluationCriterionResponseDTO;
+import com.example.soumissionservice.dto.RescoringReport;
+import com.example.soumissionservice.entity.TenderSubmissionStats;
+import com.example.soumissionservice.repository.SubmissionRepository;
+import com.example.soumissionservice.repository.SubmissionScoringView;
+import com.example.soumissionservice.services.RescoringService;
+import com.example.soumissionservice.services.TenderStatsService;
+import com.example.soumissionservice.util.ScoreCalculator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Re-scores every submission of a tender in one job: criteria and aggregates are fetched once,
+ * submissions are read in keyset chunks and scores are written back with JDBC batch updates.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RescoringServiceImpl implements RescoringService {
+
+    private static final String UPDATE_SCORE_SQL = "update submission set score = ?, updated_at = ? where id = ?";
+
+    private final SubmissionRepository repo;
+    private final TenderNearCache tenderNearCache;
+    private final TenderStatsService tenderStatsService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Qualifier("submissionPipelineExecutor")
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${submission.rescoring.chunk-size}")
+    private int chunkSize;
+
+    // Tenders with a job queued but not started: a burst of new best offers triggers one job
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public RescoringReport rescoreTender(String tenderId) {
+        long start = System.nanoTime();
+
+        // Criteria may just have changed: drop the cached copy before reading them
+        tenderNearCache.evict(tenderId);
+        List<EvaluationCriterionResponseDTO> criteria = tenderNearCache.getCriteria(tenderId);
+        TenderSubmissionStats stats = tenderStatsService.getStats(tenderId);
+
+        int processed = 0;
+        int chunks = 0;
+        String afterId = "";
+        List<SubmissionScoringView> chunk;
+
+        do {
+            chunk = repo.findScoringChunk(tenderId, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, chunk, chunk.size(), (ps, view) -> {
+                ps.setObject(1, ScoreCalculator.calculate(
+                        view.getPrice(), view.getTechnical(), view.getDeadline(), criteria, stats));
+                ps.setTimestamp(2, now);
+                ps.setString(3, view.getId());
+            });
+
+            processed += chunk.size();
+            chunks++;
+            afterId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == chunkSize);
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        double throughput = elapsedMs == 0 ? processed : processed * 1000.0 / elapsedMs;
+
+        log.info("Re-scored {} submissions of tender {} in {} chunks, {} ms ({} submissions/s)",
+                processed, tenderId, chunks, elapsedMs, String.format("%.1f", throughput));
+
+        return new RescoringReport(tenderId, processed, chunks, elapsedMs, throughput);
+    }
+
+    @Override
+    public void scheduleRescoring(String tenderId) {
+        if (!queued.add(tenderId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                // Changes made from now on schedule another job, which will see them
+                queued.remove(tenderId);
+                try {
+                    rescoreTender(tenderId);
+                } catch (Exception e) {
+                    log.error("Re-scoring of tender {} failed: {}", tenderId, e.getMessage());
+                }
+            });
+        } catch (RuntimeException e) {
+            queued.remove(tenderId);
+            throw e;
+        }
+    }
+}
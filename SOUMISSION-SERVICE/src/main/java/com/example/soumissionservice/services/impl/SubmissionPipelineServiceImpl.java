@@ -0,0 +1,293 @@
+package com.example.soumissionservice.services.impl;
+
+import com.example.soumissionservice.dto.*;
+import com.example.soumissionservice.entity.StageStatus;
+import com.example.soumissionservice.entity.Submission;
+import com.example.soumissionservice.entity.SubmissionStage;
+import com.example.soumissionservice.entity.SubmissionStageProgress;
+import com.example.soumissionservice.entity.SubmissionStatus;
+import com.example.soumissionservice.feignclients.AIClient;
+import com.example.soumissionservice.kafka.DocumentEventProducer;
+import com.example.soumissionservice.repository.SubmissionRepository;
+import com.example.soumissionservice.repository.SubmissionStageProgressRepository;
+import com.example.soumissionservice.services.EvaluationService;
+import com.example.soumissionservice.services.SubmissionPipelineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs the ingestion → analysis → scoring stages of a submission on a bounded executor.
+ * Each stage is retried up to {@code submission.pipeline.max-attempts} times; once a stage
+ * has FAILED the pipeline stops and the stage can be re-run through {@link #retryStage}.
+ * INGESTION only publishes a document-uploaded event: it stays RUNNING until AI-SERVICE
+ * reports back through {@link #completeIngestion}, which resumes the pipeline. An ingestion
+ * with no outcome after {@code submission.pipeline.ingestion-timeout-ms} is marked FAILED so
+ * that it can be retried; a success reported later still resumes the pipeline.
+ * The submission leaves IN_EVALUATION for SUBMITTED once scored, or for EVALUATION_FAILED
+ * when a stage fails (back to IN_EVALUATION when it is retried).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SubmissionPipelineServiceImpl implements SubmissionPipelineService {
+
+    private final SubmissionRepository repo;
+    private final SubmissionStageProgressRepository progressRepo;
+    private final AIClient aiClient;
+    private final DocumentEventProducer documentEventProducer;
+    private final EvaluationService evaluationService;
+
+    @Qualifier("submissionPipelineExecutor")
+    private final ThreadPoolTaskExecutor executor;
+
+    @Value("${services.document.base-url}")
+    private String documentServiceUrl;
+
+    @Value("${submission.pipeline.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${submission.pipeline.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    @Value("${submission.pipeline.ingestion-timeout-ms}")
+    private long ingestionTimeoutMs;
+
+    @Override
+    public void start(String submissionId) {
+        for (SubmissionStage stage : SubmissionStage.values()) {
+            progressRepo.save(SubmissionStageProgress.builder()
+                    .submissionId(submissionId)
+                    .stage(stage)
+                    .status(StageStatus.PENDING)
+                    .build());
+        }
+        schedule(submissionId, SubmissionStage.INGESTION);
+    }
+
+    @Override
+    public SubmissionProgressResponse getProgress(String submissionId) {
+        Submission s = repo.findById(submissionId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Submission not found"));
+
+        List<StageProgressResponse> stages = progressRepo.findBySubmissionId(submissionId).stream()
+                .sorted(Comparator.comparing(SubmissionStageProgress::getStage))
+                .map(p -> new StageProgressResponse(
+                        p.getStage(),
+                        p.getStatus(),
+                        p.getAttempts(),
+                        p.getLastError(),
+                        p.getStartedAt(),
+                        p.getFinishedAt()))
+                .toList();
+
+        return new SubmissionProgressResponse(s.getId(), s.getStatus(), stages);
+    }
+
+    @Override
+    public SubmissionProgressResponse retryStage(String submissionId, SubmissionStage stage) {
+        SubmissionStageProgress progress = progressRepo.findBySubmissionIdAndStage(submissionId, stage)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No pipeline for submission"));
+
+        if (progress.getStatus() != StageStatus.FAILED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Stage " + stage + " is " + progress.getStatus() + ", only FAILED stages can be retried");
+        }
+
+        progress.setStatus(StageStatus.PENDING);
+        progress.setAttempts(0);
+        progressRepo.save(progress);
+        repo.updateStatusIf(submissionId, SubmissionStatus.EVALUATION_FAILED, SubmissionStatus.IN_EVALUATION, LocalDateTime.now());
+
+        schedule(submissionId, stage);
+        return getProgress(submissionId);
+    }
+
+    @Override
+    public void completeIngestion(String submissionId, boolean success, String message) {
+        Optional<SubmissionStageProgress> found = progressRepo.findBySubmissionIdAndStage(submissionId, SubmissionStage.INGESTION);
+        StageStatus status = found.map(SubmissionStageProgress::getStatus).orElse(null);
+        if (status != StageStatus.RUNNING && !(success && status == StageStatus.FAILED)) {
+            // Submission deleted, or duplicate delivery of the outcome. A success arriving after
+            // the stage timed out (or after a failed delivery attempt) is still taken.
+            return;
+        }
+        SubmissionStageProgress progress = found.get();
+        progress.setStatus(success ? StageStatus.COMPLETED : StageStatus.FAILED);
+        progress.setLastError(success ? null : message);
+        progress.setFinishedAt(LocalDateTime.now());
+        progressRepo.save(progress);
+
+        if (success) {
+            log.info("Stage {} completed for submission {}", SubmissionStage.INGESTION, submissionId);
+            repo.updateStatusIf(submissionId, SubmissionStatus.EVALUATION_FAILED, SubmissionStatus.IN_EVALUATION, LocalDateTime.now());
+            schedule(submissionId, SubmissionStage.INGESTION.next());
+        } else {
+            log.error("Stage {} failed for submission {}, pipeline stopped: {}",
+                    SubmissionStage.INGESTION, submissionId, message);
+            markEvaluationFailed(submissionId);
+        }
+    }
+
+    /**
+     * The outcome of an ingestion may never come back (event lost, AI-SERVICE instance gone):
+     * fail the stage so that it can be retried through {@link #retryStage}.
+     */
+    @Scheduled(fixedDelayString = "${submission.pipeline.ingestion-sweep-interval-ms}")
+    public void failStaleIngestions() {
+        LocalDateTime now = LocalDateTime.now();
+        int failed = progressRepo.failStale(SubmissionStage.INGESTION, StageStatus.RUNNING, StageStatus.FAILED,
+                now.minus(Duration.ofMillis(ingestionTimeoutMs)),
+                "No ingestion result after " + ingestionTimeoutMs / 1000 + " s, retry the stage", now);
+        if (failed > 0) {
+            log.warn("{} ingestion stages timed out", failed);
+            repo.updateStatusWhereStage(SubmissionStatus.IN_EVALUATION, StageStatus.FAILED,
+                    SubmissionStatus.EVALUATION_FAILED, now);
+        }
+    }
+
+    @Override
+    public void discard(String submissionId) {
+        progressRepo.deleteBySubmissionId(submissionId);
+    }
+
+    private void schedule(String submissionId, SubmissionStage stage) {
+        try {
+            executor.execute(() -> runFrom(submissionId, stage));
+        } catch (TaskRejectedException e) {
+            log.warn("Pipeline queue full, stage {} of submission {} not scheduled", stage, submissionId);
+            progressRepo.findBySubmissionIdAndStage(submissionId, stage).ifPresent(p -> {
+                p.setStatus(StageStatus.FAILED);
+                p.setLastError("Pipeline queue is full, retry later");
+                progressRepo.save(p);
+            });
+            markEvaluationFailed(submissionId);
+        }
+    }
+
+    private void runFrom(String submissionId, SubmissionStage stage) {
+        for (SubmissionStage current = stage; current != null; current = current.next()) {
+            if (!runStage(submissionId, current)) {
+                return;
+            }
+        }
+        repo.updateStatusIf(submissionId, SubmissionStatus.IN_EVALUATION, SubmissionStatus.SUBMITTED, LocalDateTime.now());
+        log.info("Evaluation completed for submission {}", submissionId);
+    }
+
+    private void markEvaluationFailed(String submissionId) {
+        repo.updateStatusIf(submissionId, SubmissionStatus.IN_EVALUATION, SubmissionStatus.EVALUATION_FAILED, LocalDateTime.now());
+    }
+
+    private boolean runStage(String submissionId, SubmissionStage stage) {
+        Optional<SubmissionStageProgress> found = progressRepo.findBySubmissionIdAndStage(submissionId, stage);
+        if (found.isEmpty()) {
+            // Submission deleted while queued
+            return false;
+        }
+        SubmissionStageProgress progress = found.get();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            progress.setStatus(StageStatus.RUNNING);
+            progress.setAttempts(progress.getAttempts() + 1);
+            progress.setStartedAt(LocalDateTime.now());
+            progress = progressRepo.save(progress);
+
+            try {
+                Submission s = repo.findById(submissionId).orElse(null);
+                if (s == null) {
+                    log.info("Submission {} deleted, stopping pipeline at {}", submissionId, stage);
+                    return false;
+                }
+
+                if (!execute(stage, s)) {
+                    // Stays RUNNING: completion is reported asynchronously, see completeIngestion.
+                    // Not saved again here, the outcome may already have been recorded.
+                    return false;
+                }
+
+                progress.setStatus(StageStatus.COMPLETED);
+                progress.setLastError(null);
+                progress.setFinishedAt(LocalDateTime.now());
+                progressRepo.save(progress);
+                log.info("Stage {} completed for submission {}", stage, submissionId);
+                return true;
+
+            } catch (Exception e) {
+                log.warn("Stage {} failed for submission {} (attempt {}/{}): {}",
+                        stage, submissionId, attempt, maxAttempts, e.getMessage());
+                progress.setLastError(e.getMessage());
+
+                if (attempt < maxAttempts && !sleep(retryBackoffMs * attempt)) {
+                    break;
+                }
+            }
+        }
+
+        progress.setStatus(StageStatus.FAILED);
+        progress.setFinishedAt(LocalDateTime.now());
+        progressRepo.save(progress);
+        markEvaluationFailed(submissionId);
+        log.error("Stage {} failed for submission {}, pipeline stopped", stage, submissionId);
+        return false;
+    }
+
+    /**
+     * @return false when the stage completes asynchronously
+     */
+    private boolean execute(SubmissionStage stage, Submission s) {
+        switch (stage) {
+            case INGESTION -> {
+                documentEventProducer.sendDocumentUploaded(DocumentUploadedEvent.builder()
+                        .documentId(s.getDocumentId())
+                        .documentUrl(documentServiceUrl + "/api/documents/" + s.getDocumentId() + "/download")
+                        .tenderId(s.getTenderId())
+                        .submissionId(s.getId())
+                        .timestamp(Instant.now())
+                        .build());
+                return false;
+            }
+
+            case ANALYSIS -> {
+                // Retrieval limited to this submission's documents (contextId = submissionId)
+                ChatRequest chatrequest = new ChatRequest(
+                        "give me key point's in the submission with the supplierId: " + s.getSupplierId(),
+                        null,
+                        "OWNER",
+                        s.getId());
+                ChatResponse chatResponse = aiClient.analyze(chatrequest);
+                repo.updateRagAnalysis(s.getId(), chatResponse.answer(), LocalDateTime.now());
+            }
+
+            case SCORING -> {
+                Double score = evaluationService.evaluateSubmission(s.getId());
+                repo.updateScore(s.getId(), score, LocalDateTime.now());
+            }
+        }
+        return true;
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.soumissionservice.services.impl;
 
+import com.example.soumissionservice.cache.TenderNearCache;
 import com.example.soumissionservice.dto.*;
 import com.example.soumissionservice.entity.Submission;
 import com.example.soumissionservice.entity.SubmissionStatus;
 import com.example.soumissionservice.feignclients.*;
 import com.example.soumissionservice.mapper.SubmissionMapper;
 import com.example.soumissionservice.repository.SubmissionRepository;
-import com.example.soumissionservice.services.EvaluationService;
+import com.example.soumissionservice.services.RescoringService;
+import com.example.soumissionservice.services.SubmissionPipelineService;
 import com.example.soumissionservice.services.SubmissionService;
+import com.example.soumissionservice.services.TenderStatsService;
+import com.example.soumissionservice.util.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +33,9 @@ import com.example.soumissionservice.kafka.NotificationProducer;
 import lombok.extern.slf4j.Slf4j;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 
 @Service
 @RequiredArgsConstructor
@@ -28,38 +43,66 @@ import java.util.*;
 public class SubmissionServiceImpl implements SubmissionService {
 
     private final SubmissionRepository repo;
-    private final TenderClient tenderClient;
+    private final TenderNearCache tenderNearCache;
     private final DocumentClient documentClient;
-    private final AIClient aiClient;
-    private final EvaluationService evaluationService;
     private final UserClient userClient;
     private final NotificationProducer notificationProducer;
+    private final SubmissionPipelineService submissionPipelineService;
+    private final TenderStatsService tenderStatsService;
+    private final RescoringService rescoringService;
+    private final ObjectMapper objectMapper;
 
     @Qualifier("submissionMapperImpl")
     private final SubmissionMapper subMapper;
 
-    @Value("${services.document.base-url}")
-    private String documentServiceUrl;
+    @Qualifier("submissionIoExecutor")
+    private final ThreadPoolTaskExecutor ioExecutor;
+
+    @Value("${submission.listing.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${submission.listing.export-chunk-size}")
+    private int exportChunkSize;
 
     // Ce que doit faire createSubmission maintenant (logique correcte)
     // Ordre logique :
-    // vérifier le tender
-    // uploader le document → récupérer documentId
+    // vérifier le tender et uploader le document (en parallèle) → récupérer documentId
     // créer la Submission
     // stocker documentId
-    // sauvegarder
-    // lancer l’analyse IA
+    // sauvegarder (statut IN_EVALUATION)
+    // lancer l’analyse IA en arrière-plan (ingestion → analyse RAG → scoring)
     @Override
     public SubmissionResponse createSubmission(SubmissionRequest req) {
 
-        // 1️⃣ Vérifie si l’appel d'offre est ouvert
-        TenderResponse tender = tenderClient.getTender(req.tenderId());
-        if (!"PUBLISHED".equals(tender.status())) {
-            throw new RuntimeException("Tender is not open for submission");
+        // 1️⃣ + 2️⃣ Vérification du tender et upload du document en parallèle :
+        // l'upload ne dépend que du résultat ouvert/fermé de la vérification
+        CompletableFuture<TenderResponse> tenderLookup = CompletableFuture.supplyAsync(
+                () -> tenderNearCache.getTender(req.tenderId()), ioExecutor);
+        CompletableFuture<String> upload = CompletableFuture.supplyAsync(
+                () -> documentClient.upload(req.document()), ioExecutor);
+
+        TenderResponse tender;
+        try {
+            tender = await(tenderLookup);
+            if (!"PUBLISHED".equals(tender.status())) {
+                throw new RuntimeException("Tender is not open for submission");
+            }
+        } catch (RuntimeException e) {
+            // Compensation : le document uploadé (ou en cours d'upload) ne doit pas rester orphelin.
+            // L'upload lit le MultipartFile, dont le fichier temporaire est supprimé en fin de
+            // requête : on attend qu'il se termine avant de répondre
+            String uploadedId;
+            try {
+                uploadedId = upload.join();
+            } catch (CompletionException uploadFailure) {
+                // Upload en échec : aucun document à supprimer
+                throw e;
+            }
+            deleteRejectedDocument(uploadedId);
+            throw e;
         }
 
-        // 2️⃣ Upload document → récupérer l’ID
-        String documentId = documentClient.upload(req.document());
+        String documentId = await(upload);
 
         // 3️⃣ Créer la submission
         Submission s = new Submission();
@@ -69,35 +112,17 @@ public class SubmissionServiceImpl implements SubmissionService {
         s.setPrice(req.price());
         s.setTechnical(req.technical());
         s.setDeadline(req.deadline());
-        s.setStatus(SubmissionStatus.SUBMITTED);
+        s.setStatus(SubmissionStatus.IN_EVALUATION);
         s.setCreatedAt(LocalDateTime.now());
 
         repo.save(s);
+        if (tenderStatsService.onSubmissionCreated(s)) {
+            // Nouveau meilleur prix ou délai : les scores déjà calculés pour ce tender sont périmés
+            refreshScores(s.getTenderId());
+        }
 
-        // 4️⃣ Analyse IA
-
-        // aiClient.ingestFile(new IngestionRequest(s.getDocumentId(),
-        // "http://localhost:8081/api/documents/" + s.getDocumentId() + "/download"));
-
-        aiClient.ingestFile(new IngestionRequest(
-                s.getDocumentId(),
-                documentServiceUrl + "/api/documents/" + s.getDocumentId() + "/download"));
-
-        ChatRequest chatrequest = new ChatRequest(
-                "give me key point's in the submission with the supplierId: " + s.getSupplierId(),
-                "null");
-
-        ChatResponse chatResponse = aiClient.analyze(chatrequest);
-
-        String ragResult = chatResponse.answer();
-        s.setRagAnalysis(ragResult);
-
-        // Calculate Score
-
-        Double score = evaluationService.evaluateSubmission(s.getId());
-        s.setScore(score);
-
-        repo.save(s);
+        // 4️⃣ Analyse IA : étapes asynchrones, progression via GET /api/submissions/{id}/progress
+        submissionPipelineService.start(s.getId());
 
         // 5️⃣ Send Notification to Tender Owner
         try {
@@ -128,6 +153,35 @@ public class SubmissionServiceImpl implements SubmissionService {
         return subMapper.toResponse(s);
     }
 
+    private void deleteRejectedDocument(String documentId) {
+        try {
+            documentClient.delete(documentId);
+            log.info("Deleted document {} uploaded for a rejected submission", documentId);
+        } catch (Exception e) {
+            log.error("Failed to delete orphan document {}: {}", documentId, e.getMessage());
+        }
+    }
+
+    private void refreshScores(String tenderId) {
+        try {
+            rescoringService.scheduleRescoring(tenderId);
+        } catch (Exception e) {
+            // La soumission est enregistrée : un re-scoring manuel (POST .../rescore) reste possible
+            log.error("Failed to schedule re-scoring of tender {}: {}", tenderId, e.getMessage());
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     @Override
     public boolean deleteSubmission(String submissionId) {
 
@@ -140,7 +194,11 @@ public class SubmissionServiceImpl implements SubmissionService {
             documentClient.delete(s.getDocumentId());
         }
 
+        submissionPipelineService.discard(submissionId);
         repo.delete(s);
+        if (tenderStatsService.onSubmissionDeleted(s)) {
+            refreshScores(s.getTenderId());
+        }
         return true;
     }
 
@@ -180,6 +238,95 @@ public class SubmissionServiceImpl implements SubmissionService {
         return responses;
     }
 
+    @Override
+    public CursorPage<SubmissionSummary> getPage(String cursor, int size) {
+        return keysetPage(cursor, size, repo::findSummaries);
+    }
+
+    @Override
+    public CursorPage<SubmissionSummary> getPageByTender(String tenderId, String cursor, int size) {
+        return keysetPage(cursor, size, (afterId, page) -> repo.findSummariesByTender(tenderId, afterId, page));
+    }
+
+    @Override
+    public CursorPage<SubmissionSummary> getPageBySupplier(String supplierId, String cursor, int size) {
+        return keysetPage(cursor, size, (afterId, page) -> repo.findSummariesBySupplier(supplierId, afterId, page));
+    }
+
+    @Override
+    public void exportByTender(String tenderId, OutputStream out) throws IOException {
+        exportNdjson(out, (afterId, page) -> repo.findSummariesByTender(tenderId, afterId, page));
+    }
+
+    @Override
+    public void exportBySupplier(String supplierId, OutputStream out) throws IOException {
+        exportNdjson(out, (afterId, page) -> repo.findSummariesBySupplier(supplierId, afterId, page));
+    }
+
+    private CursorPage<SubmissionSummary> keysetPage(String cursor, int size,
+            BiFunction<String, Pageable, List<SubmissionSummary>> query) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        String afterId = (cursor == null || cursor.isBlank()) ? "" : KeysetCursor.decode(cursor, 1)[0];
+
+        List<SubmissionSummary> rows = query.apply(afterId, PageRequest.of(0, pageSize));
+        String nextCursor = rows.size() == pageSize
+                ? KeysetCursor.encode(rows.get(rows.size() - 1).id())
+                : null;
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    // Une ligne JSON par soumission, lue par chunks : la mémoire reste bornée quelle que soit la taille de l'export
+    private void exportNdjson(OutputStream out,
+            BiFunction<String, Pageable, List<SubmissionSummary>> query) throws IOException {
+        String afterId = "";
+        List<SubmissionSummary> rows;
+        do {
+            rows = query.apply(afterId, PageRequest.of(0, exportChunkSize));
+            for (SubmissionSummary row : rows) {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            out.flush();
+            if (!rows.isEmpty()) {
+                afterId = rows.get(rows.size() - 1).id();
+            }
+        } while (rows.size() == exportChunkSize);
+    }
+
+    @Override
+    public CursorPage<RankedSubmission> getLeaderboard(String tenderId, int k, String cursor) {
+        int size = Math.max(1, Math.min(k, maxPageSize));
+
+        int lastRank = 0;
+        List<SubmissionSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repo.findRanking(tenderId, PageRequest.of(0, size));
+        } else {
+            // cursor = rank|score|id of the last entry already returned
+            String[] keys = KeysetCursor.decode(cursor, 3);
+            Double lastScore;
+            try {
+                lastRank = Integer.parseInt(keys[0]);
+                lastScore = Double.valueOf(keys[1]);
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            rows = repo.findRankingAfter(tenderId, lastScore, keys[2], PageRequest.of(0, size));
+        }
+
+        List<RankedSubmission> ranked = new ArrayList<>(rows.size());
+        for (SubmissionSummary row : rows) {
+            ranked.add(new RankedSubmission(++lastRank, row));
+        }
+
+        String nextCursor = null;
+        if (rows.size() == size) {
+            SubmissionSummary last = rows.get(rows.size() - 1);
+            nextCursor = KeysetCursor.encode(lastRank, last.score(), last.id());
+        }
+        return new CursorPage<>(ranked, nextCursor);
+    }
+
     @Override
     public void updateStatus(String id, SubmissionStatus status) {
 
@@ -0,0 +1,85 @@
+package com.example.soumissionservice.services.impl;
+
+import com.example.soumissionservice.dto.TenderSubmissionStatsResponse;
+import com.example.soumissionservice.entity.Submission;
+import com.example.soumissionservice.entity.TenderSubmissionStats;
+import com.example.soumissionservice.repository.TenderMinimumsView;
+import com.example.soumissionservice.repository.TenderSubmissionStatsRepository;
+import com.example.soumissionservice.services.TenderStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenderStatsServiceImpl implements TenderStatsService {
+
+    private final TenderSubmissionStatsRepository statsRepo;
+
+    @Override
+    public boolean onSubmissionCreated(Submission s) {
+        TenderMinimumsView before = statsRepo.findMinimums(s.getTenderId()).orElse(null);
+
+        if (statsRepo.recordSubmission(s.getTenderId(), s.getPrice(), s.getDeadline()) == 0) {
+            try {
+                statsRepo.saveAndFlush(TenderSubmissionStats.builder()
+                        .tenderId(s.getTenderId())
+                        .minPrice(s.getPrice())
+                        .minDeadline(s.getDeadline())
+                        .submissionCount(1)
+                        .build());
+                // First submission of the tender: no stored score to refresh
+                return false;
+            } catch (DataIntegrityViolationException e) {
+                // Another submission created the row first
+                statsRepo.recordSubmission(s.getTenderId(), s.getPrice(), s.getDeadline());
+            }
+        }
+
+        // Compared after the atomic update, so a minimum moved by a concurrent change is caught too
+        TenderMinimumsView after = statsRepo.findMinimums(s.getTenderId()).orElse(null);
+        return before == null || minimumsMoved(before.getMinPrice(), before.getMinDeadline(), after);
+    }
+
+    @Override
+    public boolean onSubmissionDeleted(Submission s) {
+        TenderMinimumsView before = statsRepo.findMinimums(s.getTenderId()).orElse(null);
+        if (before == null) {
+            return false;
+        }
+
+        statsRepo.removeSubmission(s.getTenderId());
+
+        if (Objects.equals(before.getMinPrice(), s.getPrice())
+                || Objects.equals(before.getMinDeadline(), s.getDeadline())) {
+            statsRepo.recomputeMinimums(s.getTenderId());
+            return minimumsMoved(before.getMinPrice(), before.getMinDeadline(),
+                    statsRepo.findMinimums(s.getTenderId()).orElse(null));
+        }
+        return false;
+    }
+
+    private static boolean minimumsMoved(Double minPrice, Double minDeadline, TenderMinimumsView after) {
+        return after != null
+                && (!Objects.equals(minPrice, after.getMinPrice()) || !Objects.equals(minDeadline, after.getMinDeadline()));
+    }
+
+    @Override
+    public TenderSubmissionStats getStats(String tenderId) {
+        return statsRepo.findById(tenderId).orElse(null);
+    }
+
+    @Override
+    public TenderSubmissionStatsResponse getStatsResponse(String tenderId) {
+        TenderSubmissionStats stats = getStats(tenderId);
+        if (stats == null) {
+            return new TenderSubmissionStatsResponse(tenderId, null, null, 0);
+        }
+        return new TenderSubmissionStatsResponse(
+                stats.getTenderId(), stats.getMinPrice(), stats.getMinDeadline(), stats.getSubmissionCount());
+    }
+}
@@ -2,7 +2,7 @@ package com.example.soumissionservice.util;
 
 import com.example.soumissionservice.dto.EvaluationCriterionResponseDTO;
 import com.example.soumissionservice.entity.Submission;
-import org.springframework.http.ResponseEntity;
+import com.example.soumissionservice.entity.TenderSubmissionStats;
 
 import java.util.List;
 
@@ -10,26 +10,46 @@ import java.util.List;
 public class ScoreCalculator {
 
 
-    public static Double calculate(Submission submission, List<EvaluationCriterionResponseDTO> criteria){
+    /**
+     * Relative scoring, same rules as tender-service's ScoreCalculatorService:
+     * price and delivery time are compared to the best offer of the tender (read from the
+     * running aggregates), the technical mark is taken as is. Without aggregates the
+     * submission is compared to itself.
+     */
+    public static Double calculate(Submission submission, List<EvaluationCriterionResponseDTO> criteria,
+                                   TenderSubmissionStats stats){
+        return calculate(submission.getPrice(), submission.getTechnical(), submission.getDeadline(), criteria, stats);
+    }
+
+    public static Double calculate(Double price, Double technical, Double deadline,
+                                   List<EvaluationCriterionResponseDTO> criteria, TenderSubmissionStats stats){
 
         Double score;
         Double priceweight=0.0;
         Double technicalweight=0.0;
         Double deliveryweight=0.0;
 
+        Double minPrice = (stats != null && stats.getMinPrice() != null) ? stats.getMinPrice() : price;
+        Double minDeadline = (stats != null && stats.getMinDeadline() != null) ? stats.getMinDeadline() : deadline;
+
         for(EvaluationCriterionResponseDTO evaluationCriterionResponseDTO : criteria){
+            double weight = evaluationCriterionResponseDTO.getWeight() / 100.0;
             switch(evaluationCriterionResponseDTO.getType()){
-                case PRICE -> priceweight = (evaluationCriterionResponseDTO.getWeight()/100)* (1/submission.getPrice());
-                case TECHNICAL_QUALITY -> technicalweight= (evaluationCriterionResponseDTO.getWeight()/100)* (1/submission.getTechnical());
-                case DELIVERY_TIME ->  deliveryweight = (evaluationCriterionResponseDTO.getWeight()/100)* (1/submission.getDeadline());
+                case PRICE -> priceweight = weight * ratio(minPrice, price) * 100;
+                case TECHNICAL_QUALITY -> technicalweight = weight * (technical != null ? technical : 0.0);
+                case DELIVERY_TIME ->  deliveryweight = weight * ratio(minDeadline, deadline) * 100;
             }
 
         }
         score=priceweight+technicalweight+deliveryweight;
-//        criteria.forEach(evaluationCriterion -> {
-//            score= submission.getPrice()*evaluationCriterion.getWeight();
-//        })
 
         return score;
     }
+
+    private static double ratio(Double best, Double value){
+        if (best == null || value == null || value <= 0) {
+            return 0.0;
+        }
+        return best / value;
+    }
 }
@@ -0,0 +1,140 @@
+package com.example.soumissionservice.services.impl;
+
+import com.example.soumissionservice.cache.TenderNearCache;
+import com.example.soumissionservice.dto.CursorPage;
+import com.example.soumissionservice.dto.SubmissionRequest;
+import com.example.soumissionservice.dto.SubmissionSummary;
+import com.example.soumissionservice.dto.TenderResponse;
+import com.example.soumissionservice.entity.SubmissionStatus;
+import com.example.soumissionservice.feignclients.DocumentClient;
+import com.example.soumissionservice.feignclients.UserClient;
+import com.example.soumissionservice.kafka.NotificationProducer;
+import com.example.soumissionservice.mapper.SubmissionMapper;
+import com.example.soumissionservice.repository.SubmissionRepository;
+import com.example.soumissionservice.services.RescoringService;
+import com.example.soumissionservice.services.SubmissionPipelineService;
+import com.example.soumissionservice.services.TenderStatsService;
+import com.example.soumissionservice.util.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keyset listings and NDJSON exports, against a mocked repository, and the compensation
+ * of a rejected submission.
+ */
+class SubmissionServiceImplTest {
+
+    private SubmissionRepository repo;
+    private SubmissionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(SubmissionRepository.class);
+        service = new SubmissionServiceImpl(repo, mock(TenderNearCache.class), mock(DocumentClient.class),
+                mock(UserClient.class), mock(NotificationProducer.class), mock(SubmissionPipelineService.class),
+                mock(TenderStatsService.class), mock(RescoringService.class), new ObjectMapper().findAndRegisterModules(),
+                mock(SubmissionMapper.class), mock(ThreadPoolTaskExecutor.class));
+        ReflectionTestUtils.setField(service, "maxPageSize", 3);
+        ReflectionTestUtils.setField(service, "exportChunkSize", 2);
+    }
+
+    @Test
+    void rejectedSubmissionWaitsForTheUploadBeforeDeletingTheDocument() {
+        TenderNearCache tenderNearCache = mock(TenderNearCache.class);
+        DocumentClient documentClient = mock(DocumentClient.class);
+        ThreadPoolTaskExecutor ioExecutor = new ThreadPoolTaskExecutor();
+        ioExecutor.setCorePoolSize(2);
+        ioExecutor.initialize();
+        SubmissionServiceImpl rejecting = new SubmissionServiceImpl(repo, tenderNearCache, documentClient,
+                mock(UserClient.class), mock(NotificationProducer.class), mock(SubmissionPipelineService.class),
+                mock(TenderStatsService.class), mock(RescoringService.class), new ObjectMapper(),
+                mock(SubmissionMapper.class), ioExecutor);
+        when(tenderNearCache.getTender("t1")).thenReturn(new TenderResponse(1L, "CLOSED", LocalDate.now(), "o1"));
+        when(documentClient.upload(any())).thenAnswer(invocation -> {
+            // Upload plus lente que la vérification du tender
+            Thread.sleep(200);
+            return "doc-1";
+        });
+        MockMultipartFile file = new MockMultipartFile("file", "offre.pdf", "application/pdf", new byte[]{1});
+
+        try {
+            assertThatThrownBy(() -> rejecting.createSubmission(new SubmissionRequest("t1", "u1", 1000.0, 80.0, 30.0, file)))
+                    .hasMessage("Tender is not open for submission");
+            // Déjà supprimé au retour : le MultipartFile n'est plus lu après la requête
+            verify(documentClient).delete("doc-1");
+        } finally {
+            ioExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void fullPageCarriesCursorOfItsLastRow() {
+        when(repo.findSummariesByTender("t1", "", PageRequest.of(0, 3))).thenReturn(rows(1, 3));
+
+        CursorPage<SubmissionSummary> page = service.getPageByTender("t1", null, 50);
+
+        assertThat(page.items()).extracting(SubmissionSummary::id).containsExactly("s01", "s02", "s03");
+        assertThat(KeysetCursor.decode(page.nextCursor(), 1)).containsExactly("s03");
+    }
+
+    @Test
+    void nextPageStartsAfterCursorAndLastPageHasNoCursor() {
+        when(repo.findSummariesByTender("t1", "s03", PageRequest.of(0, 3))).thenReturn(rows(4, 5));
+
+        CursorPage<SubmissionSummary> page = service.getPageByTender("t1", KeysetCursor.encode("s03"), 3);
+
+        assertThat(page.items()).extracting(SubmissionSummary::id).containsExactly("s04", "s05");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsAtLeastOne() {
+        when(repo.findSummariesBySupplier(eq("u1"), eq(""), any())).thenReturn(rows(1, 1));
+
+        service.getPageBySupplier("u1", "", 0);
+
+        verify(repo).findSummariesBySupplier("u1", "", PageRequest.of(0, 1));
+    }
+
+    @Test
+    void exportWritesOneJsonLinePerSubmissionChunkByChunk() throws IOException {
+        when(repo.findSummariesByTender("t1", "", PageRequest.of(0, 2))).thenReturn(rows(1, 2));
+        when(repo.findSummariesByTender("t1", "s02", PageRequest.of(0, 2))).thenReturn(rows(3, 4));
+        when(repo.findSummariesByTender("t1", "s04", PageRequest.of(0, 2))).thenReturn(rows(5, 5));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportByTender("t1", out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(5);
+        assertThat(lines[0]).startsWith("{\"id\":\"s01\"");
+        assertThat(lines[4]).startsWith("{\"id\":\"s05\"").doesNotContain("ragAnalysis");
+    }
+
+    private static List<SubmissionSummary> rows(int first, int last) {
+        return IntStream.rangeClosed(first, last)
+                .mapToObj(i -> new SubmissionSummary(String.format("s%02d", i), "t1", "u1", "d" + i,
+                        SubmissionStatus.ACCEPTED, 1000.0 + i, 80.0, 30.0, 75.0, null))
+                .toList();
+    }
+}
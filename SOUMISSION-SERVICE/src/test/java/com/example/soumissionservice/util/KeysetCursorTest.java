@@ -0,0 +1,62 @@
+package com.example.soumissionservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        String cursor = KeysetCursor.encode(3, 87.5, "2f6c0c7e-8d1a-4a43-9f0b-1c7d2e6f5a10");
+
+        assertThat(KeysetCursor.decode(cursor, 3))
+                .containsExactly("3", "87.5", "2f6c0c7e-8d1a-4a43-9f0b-1c7d2e6f5a10");
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        // Bytes that standard base64 would turn into '+', '/' and '=' padding
+        String cursor = KeysetCursor.encode("??>>~~", "é");
+
+        assertThat(cursor).doesNotContain("+", "/", "=");
+        assertThat(KeysetCursor.decode(cursor, 2)).containsExactly("??>>~~", "é");
+    }
+
+    @Test
+    void keepsEmptyKeys() {
+        assertThat(KeysetCursor.decode(KeysetCursor.encode("", 1, ""), 3)).containsExactly("", "1", "");
+    }
+
+    @Test
+    void rejectsCursorThatIsNotBase64() {
+        assertBadRequest(() -> KeysetCursor.decode("not a cursor!", 1));
+    }
+
+    @Test
+    void rejectsCursorWithAnotherKeyCount() {
+        String leaderboardCursor = KeysetCursor.encode(1, 90.0, "id");
+
+        assertBadRequest(() -> KeysetCursor.decode(leaderboardCursor, 1));
+        assertBadRequest(() -> KeysetCursor.decode(KeysetCursor.encode("id"), 3));
+    }
+
+    @Test
+    void rejectsForgedCursor() {
+        String forged = Base64.getUrlEncoder().encodeToString("a|b|c|d".getBytes(StandardCharsets.UTF_8));
+
+        assertBadRequest(() -> KeysetCursor.decode(forged, 3));
+    }
+
+    private static void assertBadRequest(Runnable decode) {
+        assertThatThrownBy(decode::run)
+                .isInstanceOf(ResponseStatusException.class)
+                .satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
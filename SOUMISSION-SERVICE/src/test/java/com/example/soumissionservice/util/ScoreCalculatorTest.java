@@ -0,0 +1,72 @@
+package com.example.soumissionservice.util;
+
+import com.example.soumissionservice.dto.EvaluationCriterionResponseDTO;
+import com.example.soumissionservice.entity.TenderSubmissionStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.example.soumissionservice.entity.enumeration.EvaluationCriterionType.DELIVERY_TIME;
+import static com.example.soumissionservice.entity.enumeration.EvaluationCriterionType.PRICE;
+import static com.example.soumissionservice.entity.enumeration.EvaluationCriterionType.TECHNICAL_QUALITY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoreCalculatorTest {
+
+    // 50 % prix, 30 % technique, 20 % délai
+    private static final List<EvaluationCriterionResponseDTO> CRITERIA = List.of(
+            new EvaluationCriterionResponseDTO(1L, PRICE, 50),
+            new EvaluationCriterionResponseDTO(2L, TECHNICAL_QUALITY, 30),
+            new EvaluationCriterionResponseDTO(3L, DELIVERY_TIME, 20));
+
+    private static TenderSubmissionStats stats(Double minPrice, Double minDeadline) {
+        return TenderSubmissionStats.builder().tenderId("t1").minPrice(minPrice).minDeadline(minDeadline).build();
+    }
+
+    @Test
+    void bestOfferGetsFullPriceAndDelayPoints() {
+        double score = ScoreCalculator.calculate(1000.0, 80.0, 30.0, CRITERIA, stats(1000.0, 30.0));
+
+        assertThat(score).isCloseTo(50 + 0.3 * 80 + 20, within(1e-9));
+    }
+
+    @Test
+    void priceAndDelayAreScoredAgainstTheBestOffer() {
+        // Deux fois plus cher et 1,5 fois plus long que le meilleur
+        double score = ScoreCalculator.calculate(2000.0, 80.0, 45.0, CRITERIA, stats(1000.0, 30.0));
+
+        assertThat(score).isCloseTo(50 * 0.5 + 0.3 * 80 + 20 * (30.0 / 45.0), within(1e-9));
+    }
+
+    @Test
+    void movingTheBestOfferChangesTheScore() {
+        double before = ScoreCalculator.calculate(1200.0, 70.0, 40.0, CRITERIA, stats(1200.0, 40.0));
+        double after = ScoreCalculator.calculate(1200.0, 70.0, 40.0, CRITERIA, stats(600.0, 40.0));
+
+        assertThat(after).isCloseTo(before - 25, within(1e-9));
+    }
+
+    @Test
+    void withoutAggregatesTheSubmissionIsComparedToItself() {
+        double score = ScoreCalculator.calculate(1500.0, 60.0, 20.0, CRITERIA, null);
+
+        assertThat(score).isEqualTo(ScoreCalculator.calculate(1500.0, 60.0, 20.0, CRITERIA, stats(null, null)));
+        assertThat(score).isCloseTo(50 + 0.3 * 60 + 20, within(1e-9));
+    }
+
+    @Test
+    void missingOrInvalidValuesScoreZero() {
+        assertThat(ScoreCalculator.calculate(null, null, null, CRITERIA, stats(1000.0, 30.0))).isZero();
+        assertThat(ScoreCalculator.calculate(0.0, 50.0, -1.0, CRITERIA, stats(1000.0, 30.0)))
+                .isCloseTo(0.3 * 50, within(1e-9));
+    }
+
+    @Test
+    void criteriaWithoutWeightForAnAspectIgnoreIt() {
+        List<EvaluationCriterionResponseDTO> priceOnly = List.of(new EvaluationCriterionResponseDTO(1L, PRICE, 100));
+
+        assertThat(ScoreCalculator.calculate(1250.0, 90.0, 10.0, priceOnly, stats(1000.0, 5.0)))
+                .isCloseTo(80.0, within(1e-9));
+    }
+}
@@ -47,4 +47,18 @@ public class KafkaProducerConfig {
     public NewTopic notificationEventsTopic() {
         return new NewTopic("notification-events", 1, (short) 1);
     }
+
+    /**
+     * Several partitions so that ingestion spreads over all AI-SERVICE instances.
+     */
+    @Bean
+    public NewTopic documentUploadedTopic(@Value("${spring.kafka.topic.document-uploaded}") String topicName,
+            @Value("${spring.kafka.topic.document-uploaded-partitions}") int partitions) {
+        return new NewTopic(topicName, partitions, (short) 1);
+    }
+
+    @Bean
+    public NewTopic tenderEventsTopic(@Value("${spring.kafka.topic.tender-events}") String topicName) {
+        return new NewTopic(topicName, 1, (short) 1);
+    }
 }
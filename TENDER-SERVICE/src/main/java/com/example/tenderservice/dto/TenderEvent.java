@@ -0,0 +1,23 @@
+package com.example.tenderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Published on every tender change so that consumers holding a copy of the tender
+ * (e.g. the soumission-service near-cache) can drop it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TenderEvent {
+    private Long tenderId;
+    private TenderEventType eventType;
+    private String status;
+    private Instant timestamp;
+}
@@ -0,0 +1,8 @@
+package com.example.tenderservice.dto;
+
+public enum TenderEventType {
+    UPDATED,
+    PUBLISHED,
+    CLOSED,
+    DELETED
+}
@@ -0,0 +1,44 @@
+package com.example.tenderservice.kafka;
+
+import com.example.tenderservice.dto.DocumentUploadedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentEventProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.topic.document-uploaded}")
+    private String topicName;
+
+    @Value("${spring.kafka.topic.document-uploaded-publish-timeout-ms}")
+    private long sendTimeoutMs;
+
+    /**
+     * Keyed by documentId so that redeliveries of the same document land on the same partition.
+     * Waits for the broker acknowledgement (the producer retries on its own until then) and
+     * throws when the event could not be published: the document would never be ingested.
+     */
+    public void sendDocumentUploaded(DocumentUploadedEvent event) {
+        try {
+            kafkaTemplate.send(topicName, event.getDocumentId(), event).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            log.info("Sent document-uploaded event for document {} of tender {}", event.getDocumentId(), event.getTenderId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing document " + event.getDocumentId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("Failed to send document-uploaded event for document {}. Error: {}", event.getDocumentId(), e.getMessage());
+            throw new IllegalStateException("Failed to publish document " + event.getDocumentId() + " for ingestion", e);
+        }
+    }
+}
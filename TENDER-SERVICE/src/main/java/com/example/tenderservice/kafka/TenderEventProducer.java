@@ -0,0 +1,47 @@
+package com.example.tenderservice.kafka;
+
+import com.example.tenderservice.dto.TenderEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenderEventProducer {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${spring.kafka.topic.tender-events}")
+    private String topicName;
+
+    /**
+     * Sends the event once the current transaction (if any) has committed,
+     * so consumers never re-read the tender before the change is visible.
+     */
+    public void sendTenderEvent(TenderEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(event);
+                }
+            });
+        } else {
+            send(event);
+        }
+    }
+
+    private void send(TenderEvent event) {
+        try {
+            kafkaTemplate.send(topicName, event.getTenderId().toString(), event);
+            log.info("Sent {} event for tender {}", event.getEventType(), event.getTenderId());
+        } catch (Exception e) {
+            log.error("Failed to send tender event for tender {}. Error: {}", event.getTenderId(), e.getMessage());
+        }
+    }
+}
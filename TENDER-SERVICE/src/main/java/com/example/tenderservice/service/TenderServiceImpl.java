@@ -6,9 +6,10 @@ import com.example.tenderservice.entity.Tender;
 import com.example.tenderservice.entity.TenderDocumentRef;
 import com.example.tenderservice.entity.enumeration.TenderStatus;
 import com.example.tenderservice.exception.ResourceNotFoundException;
-import com.example.tenderservice.feignclients.AIClient;
 import com.example.tenderservice.feignclients.DocumentClient;
+import com.example.tenderservice.kafka.DocumentEventProducer;
 import com.example.tenderservice.kafka.NotificationProducer;
+import com.example.tenderservice.kafka.TenderEventProducer;
 import com.example.tenderservice.mapper.TenderMapper;
 import com.example.tenderservice.repository.EvaluationCriterionRepository;
 import com.example.tenderservice.repository.TenderRepository;
@@ -16,6 +17,7 @@ import com.example.tenderservice.service.ITenderService;
 
 import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,15 +31,17 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class TenderServiceImpl implements ITenderService {
 
     private final TenderRepository tenderRepository;
     private final TenderMapper tenderMapper;
     private final DocumentClient documentClient;
-    private final AIClient aiClient;
+    private final DocumentEventProducer documentEventProducer;
 
     private final EvaluationCriterionRepository criterionRepository;
     private final NotificationProducer notificationProducer;
+    private final TenderEventProducer tenderEventProducer;
 
     @Value("${services.document.base-url}")
     private String documentServiceUrl;
@@ -66,12 +70,6 @@ public class TenderServiceImpl implements ITenderService {
 
                         String documentId = documentClient.upload(file);
 
-                        // AI-SERVICE Ingestion
-
-                        String downloadUrl = documentServiceUrl + "/api/documents/" + documentId + "/download";
-
-                        aiClient.ingestFile(new IngestionRequest(documentId, downloadUrl));
-
                         return TenderDocumentRef.builder()
                                 .documentId(documentId) // ID dans le storage
                                 .fileName(file.getOriginalFilename())
@@ -86,9 +84,38 @@ public class TenderServiceImpl implements ITenderService {
 
         tenderRepository.save(tender);
 
+        // AI-SERVICE Ingestion : asynchrone, via Kafka (une fois l'id du tender connu).
+        // Si un événement ne peut pas être publié, la création échoue plutôt que de laisser
+        // un tender dont un document ne serait jamais ingéré
+        if (tender.getDocuments() != null) {
+            try {
+                tender.getDocuments().forEach(doc -> documentEventProducer.sendDocumentUploaded(
+                        DocumentUploadedEvent.builder()
+                                .documentId(doc.getDocumentId())
+                                .documentUrl(documentServiceUrl + "/api/documents/" + doc.getDocumentId() + "/download")
+                                .tenderId(tender.getId().toString())
+                                .timestamp(Instant.now())
+                                .build()));
+            } catch (RuntimeException e) {
+                // Compensation : ni tender ni documents orphelins (les documents déjà publiés
+                // sont retirés d'AI-SERVICE par l'événement document-deleted)
+                tenderRepository.delete(tender);
+                tender.getDocuments().forEach(doc -> deleteQuietly(doc.getDocumentId()));
+                throw e;
+            }
+        }
+
         return tenderMapper.toResponseDTO(tender);
     }
 
+    private void deleteQuietly(String documentId) {
+        try {
+            documentClient.delete(documentId);
+        } catch (Exception e) {
+            log.error("Failed to delete orphan document {}: {}", documentId, e.getMessage());
+        }
+    }
+
     @Override
     @Transactional
     public TenderResponseDTO updateTender(Long tenderId, TenderRequestDTO dto) {
@@ -127,6 +154,8 @@ public class TenderServiceImpl implements ITenderService {
 
         Tender saved = tenderRepository.save(tender);
 
+        sendTenderEvent(saved, TenderEventType.UPDATED);
+
         return tenderMapper.toResponseDTO(saved);
     }
 
@@ -147,6 +176,8 @@ public class TenderServiceImpl implements ITenderService {
         // 🔹 SUPPRESSION DU TENDER (et des TenderDocumentRef via JPA)
         tenderRepository.delete(tender);
 
+        sendTenderEvent(tender, TenderEventType.DELETED);
+
         return true;
     }
 
@@ -184,6 +215,7 @@ public class TenderServiceImpl implements ITenderService {
         tenderRepository.save(tender);
 
         sendTenderPublishedNotification(tender);
+        sendTenderEvent(tender, TenderEventType.PUBLISHED);
 
         return tenderMapper.toResponseDTO(tender);
     }
@@ -206,6 +238,15 @@ public class TenderServiceImpl implements ITenderService {
         notificationProducer.sendNotificationEvent(event);
     }
 
+    private void sendTenderEvent(Tender tender, TenderEventType eventType) {
+        tenderEventProducer.sendTenderEvent(TenderEvent.builder()
+                .tenderId(tender.getId())
+                .eventType(eventType)
+                .status(tender.getStatus().name())
+                .timestamp(Instant.now())
+                .build());
+    }
+
     @Override
     public TenderResponseDTO closeTender(Long tenderId) {
         Tender tender = tenderRepository.findById(tenderId)
@@ -214,6 +255,8 @@ public class TenderServiceImpl implements ITenderService {
         tender.setStatus(TenderStatus.CLOSED);
         tenderRepository.save(tender);
 
+        sendTenderEvent(tender, TenderEventType.CLOSED);
+
         return tenderMapper.toResponseDTO(tender);
     }
 
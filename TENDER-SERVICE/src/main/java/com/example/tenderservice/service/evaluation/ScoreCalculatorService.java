@@ -11,7 +11,8 @@ public class ScoreCalculatorService {
     public SubmissionEvaluationResult calculateScore(
             SubmissionEvaluationRequest submission,
             List<EvaluationCriterion> criteria,
-            double minPriceAmongAllSubmissions
+            double minPriceAmongAllSubmissions,
+            double minDeliveryDaysAmongAllSubmissions
     ) {
         double scorePrice = 0;
         double scoreTechnical = 0;
@@ -29,7 +30,7 @@ public class ScoreCalculatorService {
                     scoreTechnical = submission.getTechnicalScore() * weight;
                 }
                 case DELIVERY_TIME -> {
-                    double delayRatio = 1.0 / submission.getDeliveryTimeDays();
+                    double delayRatio = minDeliveryDaysAmongAllSubmissions / submission.getDeliveryTimeDays();
                     scoreDelay = delayRatio * 100 * weight;
                 }
             }
@@ -6,6 +6,7 @@
 export enum SubmissionStatus {
   SUBMITTED = 'SUBMITTED',
   IN_EVALUATION = 'IN_EVALUATION',
+  EVALUATION_FAILED = 'EVALUATION_FAILED',
   ACCEPTED = 'ACCEPTED',
   REJECTED = 'REJECTED'
 }